@@ -17,6 +17,7 @@ import de.chojo.gamejam.commands.team.Team;
 import de.chojo.gamejam.commands.unregister.Unregister;
 import de.chojo.gamejam.commands.vote.Votes;
 import de.chojo.gamejam.configuration.Configuration;
+import de.chojo.gamejam.data.access.ChangeListener;
 import de.chojo.gamejam.data.access.Guilds;
 import de.chojo.gamejam.data.access.Teams;
 import de.chojo.gamejam.server.ServerService;
@@ -80,6 +81,7 @@ public class Bot {
     private ILocalizer localizer;
     private ShardManager shardManager;
     private Guilds guilds;
+    private ChangeListener changeListener;
     private ServerService serverService;
     private Teams teams;
     private Api api;
@@ -146,6 +148,7 @@ public class Bot {
             api.shutdown();
             shardManager.shutdown();
             serverService.shutdown();
+            if (changeListener != null) changeListener.shutdown();
             dataSource.close();
             LogManager.shutdown();
         }));
@@ -240,6 +243,9 @@ public class Bot {
 
         guilds = new Guilds(dataSource);
         teams = new Teams(guilds, shardManager);
+        if (configuration.database().changeNotifications()) {
+            changeListener = ChangeListener.create(guilds, configuration.database());
+        }
     }
 
     private void initServer() throws IOException {
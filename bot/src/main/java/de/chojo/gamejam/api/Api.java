@@ -55,7 +55,7 @@ public class Api {
         app = Javalin.create(config -> {
             config.registerPlugin(getConfiguredOpenApiPlugin());
             config.accessManager((handler, ctx, routeRoles) -> {
-                if(ctx.path().startsWith("/swagger") || ctx.path().startsWith("/redoc") || ctx.path().startsWith("/api/v1/server/plugin")){
+                if(ctx.path().startsWith("/swagger") || ctx.path().startsWith("/redoc") || ctx.path().startsWith("/api/v1/server/plugin") || ctx.path().startsWith("/api/v1/server/requests")){
                     handler.handle(ctx);
                     return;
                 }
@@ -87,7 +87,7 @@ public class Api {
                 users.routes();
                 var teams = new Teams(shardManager, guilds);
                 teams.routes();
-                Server server = new Server(serverService, this.teams);
+                Server server = new Server(configuration, serverService, this.teams);
                 server.routes();
             });
         });
@@ -6,16 +6,20 @@
 
 package de.chojo.gamejam.api.v1;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import de.chojo.gamejam.configuration.Configuration;
 import de.chojo.gamejam.data.access.Teams;
 import de.chojo.gamejam.data.dao.guild.jams.jam.teams.Team;
 import de.chojo.gamejam.server.ServerService;
 import de.chojo.gamejam.server.TeamServer;
+import de.chojo.gamejam.server.files.FileTooLargeException;
+import de.chojo.gamejam.server.files.PluginInstall;
+import de.chojo.gamejam.util.Mapper;
+import de.chojo.pluginjam.payload.RequestsPayload;
 import io.javalin.http.HttpCode;
 import org.slf4j.Logger;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import java.util.Optional;
 
 import static io.javalin.apibuilder.ApiBuilder.path;
@@ -23,11 +27,13 @@ import static io.javalin.apibuilder.ApiBuilder.post;
 import static org.slf4j.LoggerFactory.getLogger;
 
 public class Server {
+    private final Configuration configuration;
     private final ServerService serverService;
     private final Teams teams;
     private static final Logger log = getLogger(Server.class);
 
-    public Server(ServerService serverService, Teams teams) {
+    public Server(Configuration configuration, ServerService serverService, Teams teams) {
+        this.configuration = configuration;
         this.serverService = serverService;
         this.teams = teams;
     }
@@ -57,24 +63,76 @@ public class Server {
                     ctx.status(HttpCode.NOT_ACCEPTABLE);
                     return;
                 }
-                var pluginFile = teamServer.plugins().resolve("plugin.jar");
+                var maxSize = configuration.api().maxPluginSize();
+                if (ctx.req.getContentLengthLong() > maxSize) {
+                    ctx.status(HttpCode.PAYLOAD_TOO_LARGE);
+                    ctx.result("Plugin exceeds the maximum size of %d bytes".formatted(maxSize));
+                    return;
+                }
+
+                PluginInstall install;
                 try (var in = ctx.bodyAsInputStream()) {
-                    log.info("Writing plugin to {}", pluginFile);
-                    Files.copy(in, pluginFile, StandardCopyOption.REPLACE_EXISTING);
+                    install = teamServer.installPlugin(in, maxSize);
+                } catch (FileTooLargeException e) {
+                    ctx.status(HttpCode.PAYLOAD_TOO_LARGE);
+                    ctx.result(e.getMessage());
+                    return;
                 } catch (IOException e) {
                     log.warn("Could not write file", e);
                     ctx.status(HttpCode.INTERNAL_SERVER_ERROR);
                     return;
                 }
 
+                if (!install.changed()) {
+                    log.info("Plugin of {} is unchanged", team.get());
+                    ctx.status(HttpCode.NOT_MODIFIED);
+                    return;
+                }
+
                 ctx.status(HttpCode.ACCEPTED);
                 String restart = ctx.queryParam("restart");
                 if ("true".equals(restart) && teamServer.running()) {
-                    teamServer.restart();
+                    if ("true".equals(ctx.queryParam("reload"))) {
+                        // Swap the plugin in place and only restart if that fails.
+                        teamServer.reloadPlugin("plugin.jar")
+                                .thenAccept(reloaded -> {
+                                    if (!reloaded && teamServer.running()) teamServer.restart();
+                                });
+                    } else {
+                        teamServer.restart();
+                    }
                 } else if (teamServer.running()) {
                     teamServer.send("say Plugin Updated");
                 }
             });
+
+            post("requests/{token}", ctx -> {
+                Optional<Team> team = teams.byToken(ctx.pathParam("token"));
+                if (team.isEmpty()) {
+                    ctx.status(HttpCode.NOT_FOUND);
+                    return;
+                }
+
+                RequestsPayload requests;
+                try {
+                    requests = Mapper.MAPPER.readValue(ctx.body(), RequestsPayload.class);
+                } catch (JsonProcessingException e) {
+                    ctx.status(HttpCode.BAD_REQUEST);
+                    ctx.result("Invalid requests payload");
+                    return;
+                }
+
+                var teamServer = serverService.byTeam(team.get());
+                if (teamServer.isEmpty()) {
+                    ctx.status(HttpCode.NOT_FOUND);
+                    ctx.result("Server is not known");
+                    return;
+                }
+
+                log.debug("Received pushed requests {} of {}", requests, team.get());
+                serverService.handleRequests(teamServer.get(), requests);
+                ctx.status(HttpCode.ACCEPTED);
+            });
         });
     }
 }
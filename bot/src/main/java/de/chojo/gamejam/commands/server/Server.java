@@ -19,11 +19,13 @@ import de.chojo.gamejam.commands.server.process.Restart;
 import de.chojo.gamejam.commands.server.process.Start;
 import de.chojo.gamejam.commands.server.process.Status;
 import de.chojo.gamejam.commands.server.process.Stop;
+import de.chojo.gamejam.commands.server.process.Stream;
 import de.chojo.gamejam.commands.server.system.Delete;
 import de.chojo.gamejam.commands.server.system.Setup;
 import de.chojo.gamejam.commands.server.upload.Plugin;
 import de.chojo.gamejam.commands.server.upload.UploadPluginData;
 import de.chojo.gamejam.commands.server.upload.World;
+import de.chojo.gamejam.commands.server.util.ProgressDownloader;
 import de.chojo.gamejam.configuration.Configuration;
 import de.chojo.gamejam.data.access.Guilds;
 import de.chojo.gamejam.server.ServerService;
@@ -34,6 +36,7 @@ import de.chojo.jdautil.interactions.slash.Slash;
 import de.chojo.jdautil.interactions.slash.SubCommand;
 import de.chojo.jdautil.interactions.slash.provider.SlashProvider;
 import de.chojo.jdautil.wrapper.EventContext;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 
 import java.util.Optional;
@@ -42,11 +45,13 @@ public class Server implements SlashProvider<Slash> {
     private final Guilds guilds;
     private final ServerService serverService;
     private final Configuration configuration;
+    private final ProgressDownloader downloader;
 
     public Server(Guilds guilds, ServerService serverService, Configuration configuration) {
         this.guilds = guilds;
         this.serverService = serverService;
         this.configuration = configuration;
+        downloader = new ProgressDownloader(configuration);
     }
 
     @Override
@@ -66,7 +71,14 @@ public class Server implements SlashProvider<Slash> {
                         .subCommand(SubCommand.of("status", "command.server.process.status.description")
                                 .handler(new Status(this)))
                         .subCommand(SubCommand.of("log", "command.server.process.log.description")
-                                .handler(new Log(this))))
+                                .handler(new Log(this, serverService))
+                                .argument(Argument.text("grep", "command.server.process.log.options.grep.description"))
+                                .argument(Argument.text("level", "command.server.process.log.options.level.description")
+                                                  .withAutoComplete())
+                                .argument(Argument.bool("file", "command.server.process.log.options.file.description")))
+                        .subCommand(SubCommand.of("stream", "command.server.process.stream.description")
+                                .handler(new Stream(this, serverService))
+                                .argument(Argument.bool("state", "command.server.process.stream.options.state.description").asRequired())))
                 .group(Group.of("system", "command.server.system.description")
                         .subCommand(SubCommand.of("setup", "command.server.system.setup.description")
                                 .handler(new Setup(this)))
@@ -78,11 +90,11 @@ public class Server implements SlashProvider<Slash> {
                                 .argument(Argument.text("url", "command.server.upload.world.options.url.description"))
                                 .argument(Argument.attachment("file", "command.server.upload.world.options.file.description")))
                         .subCommand(SubCommand.of("plugin", "command.server.upload.plugin.description")
-                                .handler(new Plugin(this))
+                                .handler(new Plugin(this, configuration))
                                 .argument(Argument.attachment("file", "command.server.upload.plugin.options.file.description")
                                                   .asRequired()))
                         .subCommand(SubCommand.of("plugindata", "command.server.upload.plugindata.description")
-                                .handler(new UploadPluginData(this, guilds, serverService))
+                                .handler(new UploadPluginData(this, serverService))
                                 .argument(Argument.text("path", "command.server.upload.plugindata.options.path.description")
                                                   .asRequired()
                                                   .withAutoComplete())
@@ -90,18 +102,18 @@ public class Server implements SlashProvider<Slash> {
                                                   .asRequired())))
                 .group(Group.of("download", "command.server.download.description")
                         .subCommand(SubCommand.of("plugindata", "command.server.download.plugindata.description")
-                                .handler(new DownloadPluginData(this, guilds, serverService))
+                                .handler(new DownloadPluginData(this, serverService))
                                 .argument(Argument.text("path", "command.server.download.plugindata.options.path.description")
                                                   .asRequired()
                                                   .withAutoComplete())))
                 .group(Group.of("plugins", "command.server.plugins.description")
                         .subCommand(SubCommand.of("install", "command.server.plugins.install.description")
-                                .handler(new Install(configuration, this))
+                                .handler(new Install(serverService.pluginCatalog(), this))
                                 .argument(Argument.text("plugin", "command.server.plugins.install.options.plugin.description")
                                                   .asRequired()
                                                   .withAutoComplete()))
                         .subCommand(SubCommand.of("uninstall", "command.server.plugins.uninstall.description")
-                                .handler(new Uninstall(this, configuration, guilds, serverService))
+                                .handler(new Uninstall(this, serverService))
                                 .argument(Argument.text("plugin", "command.server.plugins.uninstall.options.plugin.description").asRequired()
                                                   .withAutoComplete())
                                 .argument(Argument.bool("deletedata", "command.server.plugins.uninstall.options.deletedata.description")
@@ -139,4 +151,20 @@ public class Server implements SlashProvider<Slash> {
 
         return Optional.ofNullable(serverService.get(optTeam.get()));
     }
+
+    /**
+     * Resolves the server of the team of the user for autocompletion.
+     *
+     * @param event autocomplete event
+     * @return the server or empty if the user is not part of a team in the active jam
+     */
+    public Optional<TeamServer> getServer(CommandAutoCompleteInteractionEvent event) {
+        return guilds.guild(event).jams().activeJam()
+                     .flatMap(jam -> jam.teams().byMember(event.getUser()))
+                     .map(serverService::get);
+    }
+
+    public ProgressDownloader downloader() {
+        return downloader;
+    }
 }
@@ -7,10 +7,8 @@
 package de.chojo.gamejam.commands.server.download;
 
 import de.chojo.gamejam.commands.server.Server;
-import de.chojo.gamejam.data.access.Guilds;
-import de.chojo.gamejam.data.dao.guild.jams.Jam;
 import de.chojo.gamejam.server.ServerService;
-import de.chojo.gamejam.util.TempFile;
+import de.chojo.gamejam.server.files.ZipStream;
 import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
 import de.chojo.jdautil.util.Choice;
 import de.chojo.jdautil.wrapper.EventContext;
@@ -20,29 +18,20 @@ import net.dv8tion.jda.api.exceptions.ErrorResponseException;
 import net.dv8tion.jda.api.requests.ErrorResponse;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.utils.FileUpload;
-import net.lingala.zip4j.ZipFile;
-import net.lingala.zip4j.exception.ZipException;
 import org.slf4j.Logger;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.InputStream;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
 public class DownloadPluginData implements SlashHandler {
     private static final Logger log = getLogger(DownloadPluginData.class);
     private final Server server;
-    private final Guilds guilds;
     private final ServerService serverService;
 
-    public DownloadPluginData(Server server, Guilds guilds, ServerService serverService) {
+    public DownloadPluginData(Server server, ServerService serverService) {
         this.server = server;
-        this.guilds = guilds;
         this.serverService = serverService;
     }
 
@@ -60,6 +49,7 @@ public class DownloadPluginData implements SlashHandler {
         }
 
         var pluginFile = teamServer.plugins().resolve(path);
+        var maxSize = event.getGuild().getMaxFileSize();
 
         if (pluginFile.toFile().isFile()) {
             // No download from plugin root
@@ -67,108 +57,78 @@ public class DownloadPluginData implements SlashHandler {
                 event.reply(context.localize("error.invalidpath")).queue();
                 return;
             }
+            if (pluginFile.toFile().length() > maxSize) {
+                event.reply(context.localize("command.server.download.downloadplugindata.message.fail.filetolarge")).queue();
+                return;
+            }
             event.replyFiles(FileUpload.fromData(pluginFile, pluginFile.toFile().getName())).queue();
             return;
         }
 
-        event.reply(context.localize("command.server.download.downloadplugindata.message.zipping")).queue();
-        Path tempFile;
+        InputStream zip;
         try {
-            tempFile = TempFile.createPath("download", "zip");
-            try (var zip = new ZipFile(tempFile.toFile())) {
-                zip.addFolder(pluginFile.toFile());
+            // Compressed files cannot shrink any further. If those alone exceed the limit, the upload would fail anyway.
+            if (ZipStream.minimumSize(pluginFile) > maxSize) {
+                event.reply(context.localize("command.server.download.downloadplugindata.message.fail.filetolarge")).queue();
+                return;
             }
-            tempFile.toFile().deleteOnExit();
-        } catch (ZipException e) {
-            log.error("Failed to zip date", e);
-            event.getHook().editOriginal(context.localize("command.server.download.downloadplugindata.message.fail.zip")).queue();
-            return;
+            zip = ZipStream.open(pluginFile);
         } catch (IOException e) {
-            log.error("Failed to create zip file", e);
-            event.getHook().editOriginal(context.localize("command.server.download.downloadplugindata.message.fail.tempfile")).queue();
+            log.error("Failed to zip data", e);
+            event.reply(context.localize("command.server.download.downloadplugindata.message.fail.zip")).queue();
             return;
         }
+
+        event.reply(context.localize("command.server.download.downloadplugindata.message.zipping")).queue();
         event.getHook().editOriginal(context.localize("command.server.download.downloadplugindata.message.success"))
-             .setFiles(FileUpload.fromData(tempFile, pluginFile.toFile().getName() + ".zip"))
+             .setFiles(FileUpload.fromData(zip, pluginFile.toFile().getName() + ".zip"))
              .queue(RestAction.getDefaultSuccess(), err -> {
-                 if (err instanceof ErrorResponseException response) {
-                     if (response.getErrorResponse() == ErrorResponse.FILE_UPLOAD_MAX_SIZE_EXCEEDED) {
-                         event.getHook().editOriginal(context.localize("command.server.download.downloadplugindata.message.fail.filetolarge")).queue();
-                     }
+                 // Stops the zipping if the upload was aborted.
+                 close(zip);
+                 if (err instanceof ErrorResponseException response
+                     && response.getErrorResponse() == ErrorResponse.FILE_UPLOAD_MAX_SIZE_EXCEEDED) {
+                     event.getHook().editOriginal(context.localize("command.server.download.downloadplugindata.message.fail.filetolarge")).queue();
+                     return;
                  }
+                 log.error("Failed to upload zipped data", err);
+                 event.getHook().editOriginal(context.localize("command.server.download.downloadplugindata.message.fail.zip")).queue();
              });
     }
 
+    private void close(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
     @Override
     public void onAutoComplete(CommandAutoCompleteInteractionEvent event, EventContext context) {
-        var optServer = guilds.guild(event).jams().activeJam()
-                              .map(Jam::teams)
-                              .flatMap(teams -> teams.byMember(event.getUser()))
-                              .map(serverService::get);
+        var optServer = server.getServer(event);
         if (optServer.isEmpty()) return;
-        var server = optServer.get();
 
         var option = event.getFocusedOption();
         if ("path".equals(option.getName())) {
-            var plugins = server.plugins();
             var currPath = option.getValue();
             if (currPath.contains("..")) {
                 event.replyChoices().queue();
                 return;
             }
-            var split = currPath.split("/");
+            var index = serverService.pluginIndex(optServer.get());
 
             // Root dir
-            if (split.length == 1 && !currPath.endsWith("/")) {
-                var currValue = split[0].toLowerCase();
-                var files = files(plugins).stream()
-                                          .filter(File::isDirectory)
-                                          .filter(file -> file.getName().toLowerCase().startsWith(currValue))
-                                          .limit(25)
-                                          .map(line -> fileName(plugins, line));
-                event.replyChoices(Choice.toStringChoice(files)).queue();
+            if (!currPath.contains("/")) {
+                event.replyChoices(Choice.toStringChoice(index.lookup(currPath, true, 25))).queue();
                 return;
             }
 
-            if (!currPath.endsWith("/")) {
-                split = Arrays.copyOfRange(split, 0, split.length - 1);
-            }
-
-            var path = plugins;
-
-            for (var s : split) {
-                path = path.resolve(s);
-            }
-
             if (currPath.endsWith("/")) {
-                var files = files(path).stream()
-                                       .limit(25)
-                                       .map(line -> fileName(plugins, line));
-                event.replyChoices(Choice.toStringChoice(files)).queue();
+                event.replyChoices(Choice.toStringChoice(index.lookup(currPath, false, 25))).queue();
                 return;
             }
-            split = currPath.split("/");
-            var currValue = currPath.split("/")[split.length - 1].toLowerCase();
-
-            var files = files(path).stream()
-                                   .filter(file -> file.getName().toLowerCase().startsWith(currValue))
-                                   .limit(24)
-                                   .map(line -> fileName(plugins, line))
-                                   .collect(Collectors.toCollection(ArrayList::new));
 
-            event.replyChoices(Choice.toStringChoice(files)).queue();
+            event.replyChoices(Choice.toStringChoice(index.lookup(currPath, false, 24))).queue();
         }
     }
-
-    private List<File> files(Path path) {
-        return Arrays.stream(path.toFile().listFiles()).toList();
-    }
-
-    private String fileName(Path strip, File file) {
-        if (file.isDirectory()) {
-            return (file.toPath() + "/").replace(strip.toString(), "").replaceAll("^/", "");
-        }
-        return file.toPath().toString().replace(strip.toString(), "").replaceAll("^/", "");
-
-    }
 }
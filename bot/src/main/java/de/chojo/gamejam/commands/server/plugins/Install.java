@@ -7,7 +7,7 @@
 package de.chojo.gamejam.commands.server.plugins;
 
 import de.chojo.gamejam.commands.server.Server;
-import de.chojo.gamejam.configuration.Configuration;
+import de.chojo.gamejam.server.catalog.PluginCatalog;
 import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
 import de.chojo.jdautil.localization.util.Replacement;
 import de.chojo.jdautil.util.Choice;
@@ -23,11 +23,11 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 public class Install implements SlashHandler {
     private static final Logger log = getLogger(Install.class);
-    private final Configuration configuration;
+    private final PluginCatalog catalog;
     private final Server server;
 
-    public Install(Configuration configuration, Server server) {
-        this.configuration = configuration;
+    public Install(PluginCatalog catalog, Server server) {
+        this.catalog = catalog;
         this.server = server;
     }
 
@@ -38,17 +38,17 @@ public class Install implements SlashHandler {
         var teamServer = optServer.get();
 
         var pluginName = event.getOption("plugin").getAsString();
-        var optPlugin = configuration.plugins().byName(pluginName);
+        var optPlugin = catalog.byName(pluginName);
         if (optPlugin.isEmpty()) {
             event.reply(context.localize("error.pluginnotfound")).queue();
             return;
         }
         var plugin = optPlugin.get();
 
-        var pluginPath = teamServer.plugins().resolve(plugin.toFile().getName());
-        pluginPath.toFile().delete();
+        var pluginPath = teamServer.plugins().resolve(plugin.fileName());
         try {
-            Files.createSymbolicLink(pluginPath, plugin.toAbsolutePath());
+            Files.deleteIfExists(pluginPath);
+            Files.createSymbolicLink(pluginPath, plugin.path().toAbsolutePath());
         } catch (IOException e) {
             event.reply(context.localize("command.server.plugins.install.message.fail")).queue();
             log.error("Could not install plugin", e);
@@ -61,16 +61,7 @@ public class Install implements SlashHandler {
     public void onAutoComplete(CommandAutoCompleteInteractionEvent event, EventContext context) {
         var option = event.getFocusedOption();
         if ("plugin".equals(option.getName())) {
-            var currValue = option.getValue().toLowerCase();
-            if (currValue.isEmpty()) {
-                event.replyChoices(Choice.toStringChoice(configuration.plugins().pluginNames().stream().limit(25)))
-                     .queue();
-                return;
-            }
-            var stream = configuration.plugins().pluginNames().stream()
-                                      .filter(name -> name.toLowerCase().startsWith(currValue))
-                                      .limit(25);
-            event.replyChoices(Choice.toStringChoice(stream)).queue();
+            event.replyChoices(Choice.toStringChoice(catalog.complete(option.getValue(), 25))).queue();
         }
     }
 }
@@ -7,30 +7,22 @@
 package de.chojo.gamejam.commands.server.plugins;
 
 import de.chojo.gamejam.commands.server.Server;
-import de.chojo.gamejam.configuration.Configuration;
-import de.chojo.gamejam.data.access.Guilds;
-import de.chojo.gamejam.data.dao.guild.jams.Jam;
 import de.chojo.gamejam.server.ServerService;
+import de.chojo.gamejam.server.catalog.PluginEntry;
 import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
 import de.chojo.jdautil.util.Choice;
 import de.chojo.jdautil.wrapper.EventContext;
 import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 
-import java.io.File;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Optional;
 
 public class Uninstall implements SlashHandler {
     private final Server server;
-    private final Configuration configuration;
-    private final Guilds guilds;
     private final ServerService serverService;
 
-    public Uninstall(Server server, Configuration configuration, Guilds guilds, ServerService serverService) {
+    public Uninstall(Server server, ServerService serverService) {
         this.server = server;
-        this.configuration = configuration;
-        this.guilds = guilds;
         this.serverService = serverService;
     }
 
@@ -41,14 +33,14 @@ public class Uninstall implements SlashHandler {
         var teamServer = optServer.get();
 
         var pluginName = event.getOption("plugin").getAsString();
-        var optPlugin = configuration.plugins().byName(pluginName);
+        var optPlugin = serverService.pluginCatalog().byName(pluginName);
         if (optPlugin.isEmpty()) {
             event.reply(context.localize("error.pluginnotfound")).queue();
             return;
         }
         var plugin = optPlugin.get();
 
-        var pluginPath = teamServer.plugins().resolve(plugin.toFile().getName());
+        var pluginPath = teamServer.plugins().resolve(plugin.fileName());
         pluginPath.toFile().delete();
 
         if (event.getOption("deletedata").getAsBoolean()) {
@@ -62,35 +54,19 @@ public class Uninstall implements SlashHandler {
 
     @Override
     public void onAutoComplete(CommandAutoCompleteInteractionEvent event, EventContext context) {
-        var optServer = guilds.guild(event).jams().activeJam()
-                              .map(Jam::teams)
-                              .flatMap(teams -> teams.byMember(event.getUser()))
-                              .map(serverService::get);
+        var optServer = server.getServer(event);
         if (optServer.isEmpty()) return;
 
         var option = event.getFocusedOption();
         if ("plugin".equals(option.getName())) {
-            var allowedPlugins = configuration.plugins().pluginFiles().stream()
-                                              .map(File::getName)
-                                              .collect(Collectors.toSet());
-
-            var installedPlugins = Stream.of(optServer.get().plugins().toFile().listFiles(File::isFile))
-                    .filter(plugin -> allowedPlugins.contains(plugin.getName()))
-                    .map(file -> file.getName().replace(".jar", ""))
-                    .toList();
-
-            var currValue = option.getValue().toLowerCase();
-
-            if (currValue.isEmpty()) {
-                event.replyChoices(Choice.toStringChoice(installedPlugins))
-                     .queue();
-                return;
-            }
-
-            var stream = installedPlugins.stream()
-                                         .filter(name -> name.toLowerCase().startsWith(currValue))
-                                         .limit(25);
-            event.replyChoices(Choice.toStringChoice(stream)).queue();
+            var catalog = serverService.pluginCatalog();
+            // Plugin files live in the plugin root, which only holds a few dozen entries.
+            var installedPlugins = serverService.pluginIndex(optServer.get()).lookup(option.getValue(), false, 200).stream()
+                                                .map(catalog::byFileName)
+                                                .flatMap(Optional::stream)
+                                                .map(PluginEntry::name)
+                                                .limit(25);
+            event.replyChoices(Choice.toStringChoice(installedPlugins)).queue();
         }
     }
 }
@@ -29,7 +29,10 @@ public class Console implements SlashHandler {
             event.reply(context.localize("command.server.process.console.message.notexecutable")).queue();
             return;
         }
-        teamServer.send(command);
+        if (!teamServer.send(command)) {
+            event.reply(context.localize("command.server.process.console.message.unavailable")).queue();
+            return;
+        }
         event.reply(context.localize("command.server.process.console.message.executed")).queue();
     }
 }
@@ -7,19 +7,28 @@
 package de.chojo.gamejam.commands.server.process;
 
 import de.chojo.gamejam.commands.server.Server;
+import de.chojo.gamejam.server.ServerService;
+import de.chojo.gamejam.server.logs.LogFilter;
+import de.chojo.gamejam.server.logs.LogLevel;
 import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
+import de.chojo.jdautil.util.Choice;
 import de.chojo.jdautil.wrapper.EventContext;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.utils.FileUpload;
 
-import java.io.IOException;
-import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Locale;
 
 public class Log implements SlashHandler {
+    private static final int MAX_LENGTH = 1950;
     private final Server server;
+    private final ServerService serverService;
 
-    public Log(Server server) {
+    public Log(Server server, ServerService serverService) {
         this.server = server;
+        this.serverService = serverService;
     }
 
     @Override
@@ -28,15 +37,54 @@ public class Log implements SlashHandler {
         if(optServer.isEmpty())return;
         var teamServer = optServer.get();
         var logFile = teamServer.logFile();
-        String content;
-        try {
-            content = Files.readString(logFile);
-        } catch (IOException e) {
-            content = "";
+
+        String grep = null;
+        var grepOption = event.getOption("grep");
+        if (grepOption != null) {
+            grep = grepOption.getAsString();
+        }
+
+        LogLevel level = null;
+        var levelOption = event.getOption("level");
+        if (levelOption != null) {
+            level = LogLevel.parse(levelOption.getAsString()).orElse(null);
+        }
+
+        var lines = serverService.logs().lines(logFile, new LogFilter(grep, level));
+
+        // Take lines from the end until the message is full.
+        var shown = new ArrayDeque<String>();
+        var length = 0;
+        for (var i = lines.size() - 1; i >= 0; i--) {
+            var line = lines.get(i);
+            if (length + line.length() + 1 > MAX_LENGTH) {
+                if (shown.isEmpty()) shown.add(line.substring(line.length() - MAX_LENGTH));
+                break;
+            }
+            shown.addFirst(line);
+            length += line.length() + 1;
+        }
+
+        var content = shown.isEmpty()
+                ? context.localize("command.server.process.log.message.empty")
+                : "```log%n%s%n```".formatted(String.join("\n", shown));
+        var reply = event.reply(content);
+        var fileOption = event.getOption("file");
+        if (fileOption != null && fileOption.getAsBoolean() && logFile.toFile().isFile()) {
+            reply.addFiles(FileUpload.fromData(logFile, "latest.log"));
+        }
+        reply.queue();
+    }
+
+    @Override
+    public void onAutoComplete(CommandAutoCompleteInteractionEvent event, EventContext context) {
+        var option = event.getFocusedOption();
+        if ("level".equals(option.getName())) {
+            var value = option.getValue().toUpperCase(Locale.ROOT);
+            var levels = Arrays.stream(LogLevel.values())
+                               .map(Enum::name)
+                               .filter(name -> name.startsWith(value));
+            event.replyChoices(Choice.toStringChoice(levels)).queue();
         }
-        content = content.substring(Math.max(content.length() - 1950, 0));
-        event.reply("```log%n%s%n```".formatted(content))
-             .addFiles(FileUpload.fromData(logFile, "latest.log"))
-             .queue();
     }
 }
@@ -24,7 +24,15 @@ public class Start implements SlashHandler {
         if(optServer.isEmpty())return;
         var teamServer = optServer.get();
         if (teamServer.exists()) {
-            if (teamServer.start()) {
+            var start = teamServer.requestStart();
+            if (!start.isDone()) {
+                event.reply(context.localize("command.server.process.start.message.queued")).queue();
+                start.thenAccept(started -> event.getHook().editOriginal(context.localize(started
+                        ? "command.server.process.start.message.success"
+                        : "command.server.process.start.message.fail")).queue());
+                return;
+            }
+            if (start.join()) {
                 event.reply(context.localize("command.server.process.start.message.success")).queue();
             } else {
                 event.reply(context.localize("command.server.process.start.message.fail")).queue();
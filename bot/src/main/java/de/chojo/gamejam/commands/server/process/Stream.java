@@ -0,0 +1,43 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.commands.server.process;
+
+import de.chojo.gamejam.commands.server.Server;
+import de.chojo.gamejam.server.ServerService;
+import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
+import de.chojo.jdautil.wrapper.EventContext;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+
+public class Stream implements SlashHandler {
+    private final Server server;
+    private final ServerService serverService;
+
+    public Stream(Server server, ServerService serverService) {
+        this.server = server;
+        this.serverService = serverService;
+    }
+
+    @Override
+    public void onSlashCommand(SlashCommandInteractionEvent event, EventContext context) {
+        var optServer = server.getServer(event, context);
+        if (optServer.isEmpty()) return;
+        var teamServer = optServer.get();
+        var streams = serverService.consoleStreams();
+
+        if (!event.getOption("state").getAsBoolean()) {
+            streams.disable(teamServer.team());
+            event.reply(context.localize("command.server.process.stream.message.disabled")).queue();
+            return;
+        }
+
+        if (!streams.enable(teamServer.team(), teamServer.logFile())) {
+            event.reply(context.localize("command.server.process.stream.message.nochannel")).setEphemeral(true).queue();
+            return;
+        }
+        event.reply(context.localize("command.server.process.stream.message.enabled")).queue();
+    }
+}
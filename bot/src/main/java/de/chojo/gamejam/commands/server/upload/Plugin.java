@@ -7,29 +7,28 @@
 package de.chojo.gamejam.commands.server.upload;
 
 import de.chojo.gamejam.commands.server.Server;
-import de.chojo.gamejam.commands.server.util.ProgressDownloader;
+import de.chojo.gamejam.configuration.Configuration;
+import de.chojo.gamejam.server.TeamServer;
+import de.chojo.gamejam.server.files.FileTooLargeException;
 import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
 import de.chojo.jdautil.wrapper.EventContext;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import org.slf4j.Logger;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
 public class Plugin implements SlashHandler {
     private static final Logger log = getLogger(Plugin.class);
     private final Server server;
+    private final Configuration configuration;
 
-    public Plugin(Server server) {
+    public Plugin(Server server, Configuration configuration) {
         this.server = server;
+        this.configuration = configuration;
     }
 
     @Override
@@ -40,16 +39,41 @@ public class Plugin implements SlashHandler {
 
         var downloadUrl = event.getOption("file").getAsAttachment().getProxy().getUrl();
 
-        var download = ProgressDownloader.download(event, context, downloadUrl);
+        server.downloader().download(event, context, downloadUrl)
+                .thenAccept(download -> download.ifPresent(file -> {
+                    try {
+                        install(event, context, teamServer, file);
+                    } finally {
+                        delete(file);
+                    }
+                }))
+                .exceptionally(err -> {
+                    log.error("Could not install plugin", err);
+                    event.getHook().editOriginal(context.localize("command.server.upload.plugin.message.fail")).queue();
+                    return null;
+                });
+    }
 
-        if (download.isEmpty()) return;
+    private void install(SlashCommandInteractionEvent event, EventContext context, TeamServer teamServer, Path file) {
+        try (var in = Files.newInputStream(file)) {
+            var install = teamServer.installPlugin(in, configuration.api().maxPluginSize());
+            var key = install.changed()
+                    ? "command.server.upload.plugin.message.success"
+                    : "command.server.upload.plugin.message.unchanged";
+            event.getHook().editOriginal(context.localize(key)).queue();
+        } catch (FileTooLargeException e) {
+            event.getHook().editOriginal(context.localize("command.server.util.progressdownloader.message.fail.toolarge")).queue();
+        } catch (IOException e) {
+            log.error("Could not install plugin", e);
+            event.getHook().editOriginal(context.localize("command.server.upload.plugin.message.fail")).queue();
+        }
+    }
 
-        var pluginFile = teamServer.plugins().resolve("plugin.jar");
+    private void delete(Path path) {
         try {
-            Files.copy(download.get(), pluginFile, StandardCopyOption.REPLACE_EXISTING);
-            event.getHook().editOriginal(context.localize("command.server.upload.plugin.message.success")).queue();
+            Files.deleteIfExists(path);
         } catch (IOException e) {
-            event.getHook().editOriginal(context.localize("command.server.upload.plugin.message.fail")).queue();
+            log.warn("Could not delete temp file {}", path, e);
         }
     }
 }
@@ -7,10 +7,8 @@
 package de.chojo.gamejam.commands.server.upload;
 
 import de.chojo.gamejam.commands.server.Server;
-import de.chojo.gamejam.commands.server.util.ProgressDownloader;
-import de.chojo.gamejam.data.access.Guilds;
-import de.chojo.gamejam.data.dao.guild.jams.Jam;
 import de.chojo.gamejam.server.ServerService;
+import de.chojo.gamejam.server.files.PluginInstaller;
 import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
 import de.chojo.jdautil.util.Choice;
 import de.chojo.jdautil.wrapper.EventContext;
@@ -18,27 +16,20 @@ import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInterac
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import org.slf4j.Logger;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
 public class UploadPluginData implements SlashHandler {
     private static final Logger log = getLogger(UploadPluginData.class);
     private final Server server;
-    private final Guilds guilds;
     private final ServerService serverService;
 
-    public UploadPluginData(Server server, Guilds guilds, ServerService serverService) {
+    public UploadPluginData(Server server, ServerService serverService) {
         this.server = server;
-        this.guilds = guilds;
         this.serverService = serverService;
     }
 
@@ -56,10 +47,6 @@ public class UploadPluginData implements SlashHandler {
             return;
         }
 
-        var download = ProgressDownloader.download(event, context, downloadUrl);
-
-        if (download.isEmpty()) return;
-
         var pluginFile = teamServer.plugins().resolve(path);
         // No upload in plugin root
         if (pluginFile.getParent().equals(teamServer.plugins())) {
@@ -72,86 +59,64 @@ public class UploadPluginData implements SlashHandler {
             event.reply(context.localize("error.invalidpath")).queue();
             return;
         }
+
+        server.downloader().download(event, context, downloadUrl)
+                .thenAccept(download -> download.ifPresent(file -> {
+                    try (var in = Files.newInputStream(file)) {
+                        Files.createDirectories(pluginFile.getParent());
+                        // The size is already limited by the download.
+                        PluginInstaller.install(in, pluginFile, Long.MAX_VALUE);
+                        event.getHook().editOriginal(context.localize("command.server.upload.uploadplugindata.message.success")).queue();
+                    } catch (IOException e) {
+                        log.error("Could not write plugin data", e);
+                        event.getHook().editOriginal(context.localize("command.server.upload.uploadplugindata.message.fail")).queue();
+                    } finally {
+                        delete(file);
+                    }
+                }))
+                .exceptionally(err -> {
+                    log.error("Could not write plugin data", err);
+                    event.getHook().editOriginal(context.localize("command.server.upload.uploadplugindata.message.fail")).queue();
+                    return null;
+                });
+    }
+
+    private void delete(Path path) {
         try {
-            Files.copy(download.get(), pluginFile, StandardCopyOption.REPLACE_EXISTING);
-            event.getHook().editOriginal(context.localize("command.server.upload.uploadplugindata.message.success")).queue();
+            Files.deleteIfExists(path);
         } catch (IOException e) {
-            event.getHook().editOriginal(context.localize("command.server.upload.uploadplugindata.message.fail")).queue();
+            log.warn("Could not delete temp file {}", path, e);
         }
     }
 
     @Override
     public void onAutoComplete(CommandAutoCompleteInteractionEvent event, EventContext context) {
-        var optServer = guilds.guild(event).jams().activeJam()
-                              .map(Jam::teams)
-                              .flatMap(teams -> teams.byMember(event.getUser()))
-                              .map(serverService::get);
+        var optServer = server.getServer(event);
         if (optServer.isEmpty()) return;
-        var server = optServer.get();
 
         var option = event.getFocusedOption();
         if ("path".equals(option.getName())) {
-            var plugins = server.plugins();
             var currPath = option.getValue();
             if (currPath.contains("..")) {
                 event.replyChoices().queue();
                 return;
             }
-            var split = currPath.split("/");
+            var index = serverService.pluginIndex(optServer.get());
 
             // Root dir
-            if (split.length == 1 && !currPath.endsWith("/")) {
-                var currValue = split[0].toLowerCase();
-                var files = files(plugins).stream()
-                                          .filter(File::isDirectory)
-                                          .filter(file -> file.getName().toLowerCase().startsWith(currValue))
-                                          .limit(25)
-                                          .map(line -> fileName(plugins, line));
-                event.replyChoices(Choice.toStringChoice(files)).queue();
+            if (!currPath.contains("/")) {
+                event.replyChoices(Choice.toStringChoice(index.lookup(currPath, true, 25))).queue();
                 return;
             }
 
-            if (!currPath.endsWith("/")) {
-                split = Arrays.copyOfRange(split, 0, split.length - 1);
-            }
-
-            var path = plugins;
-
-            for (var s : split) {
-                path = path.resolve(s);
-            }
-
             if (currPath.endsWith("/")) {
-                var files = files(path).stream()
-                                       .limit(25)
-                                       .map(line -> fileName(plugins, line));
-                event.replyChoices(Choice.toStringChoice(files)).queue();
+                event.replyChoices(Choice.toStringChoice(index.lookup(currPath, false, 25))).queue();
                 return;
             }
-            split = currPath.split("/");
-            var currValue = currPath.split("/")[split.length - 1].toLowerCase();
-
-            var files = files(path).stream()
-                                   .filter(file -> file.getName().toLowerCase().startsWith(currValue))
-                                   .limit(24)
-                                   .map(line -> fileName(plugins, line))
-                                   .collect(Collectors.toCollection(ArrayList::new));
 
+            var files = new ArrayList<>(index.lookup(currPath, false, 24));
             files.add(0, currPath);
-
             event.replyChoices(Choice.toStringChoice(files)).queue();
         }
     }
-
-    private List<File> files(Path path) {
-        return Arrays.stream(path.toFile().listFiles()).toList();
-    }
-
-    private String fileName(Path strip, File file) {
-        if (file.isDirectory()) {
-            return (file.toPath() + "/").replace(strip.toString(), "").replaceAll("^/", "");
-        }
-        return file.toPath().toString().replace(strip.toString(), "").replaceAll("^/", "");
-
-    }
 }
@@ -7,12 +7,15 @@
 package de.chojo.gamejam.commands.server.upload;
 
 import de.chojo.gamejam.commands.server.Server;
-import de.chojo.gamejam.commands.server.util.ProgressDownloader;
 import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
 import de.chojo.jdautil.wrapper.EventContext;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import org.slf4j.Logger;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static org.slf4j.LoggerFactory.getLogger;
 
 public class World implements SlashHandler {
@@ -46,15 +49,31 @@ public class World implements SlashHandler {
             return;
         }
 
-        var download = ProgressDownloader.download(event, context, downloadUrl);
-
-        if (download.isEmpty()) return;
+        server.downloader().download(event, context, downloadUrl)
+                .thenAccept(download -> download.ifPresent(file -> {
+                    try {
+                        event.getHook().editOriginal(context.localize("command.server.upload.world.message.replacing")).queue();
+                        if (teamServer.replaceWorld(file)) {
+                            event.getHook().editOriginal(context.localize("command.server.upload.world.message.replaced")).queue();
+                        } else {
+                            event.getHook().editOriginal(context.localize("command.server.upload.world.message.failed")).queue();
+                        }
+                    } finally {
+                        delete(file);
+                    }
+                }))
+                .exceptionally(err -> {
+                    log.error("Could not replace world", err);
+                    event.getHook().editOriginal(context.localize("command.server.upload.world.message.failed")).queue();
+                    return null;
+                });
+    }
 
-        event.getHook().editOriginal(context.localize("command.server.upload.world.message.replacing")).queue();
-        if (teamServer.replaceWorld(download.get())) {
-            event.getHook().editOriginal(context.localize("command.server.upload.world.message.replaced")).queue();
-        } else {
-            event.getHook().editOriginal(context.localize("command.server.upload.world.message.failed")).queue();
+    private void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temp file {}", path, e);
         }
     }
 }
@@ -6,31 +6,69 @@
 
 package de.chojo.gamejam.commands.server.util;
 
+import de.chojo.gamejam.configuration.Configuration;
 import de.chojo.gamejam.util.TempFile;
+import de.chojo.jdautil.localization.util.Replacement;
 import de.chojo.jdautil.wrapper.EventContext;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
-public final class ProgressDownloader {
+/**
+ * Downloads files for commands and reports the progress in the reply of the command.
+ * <p>
+ * Downloads run on a bounded pool. Interrupted downloads are resumed via range requests.
+ */
+public class ProgressDownloader {
     private static final Logger log = getLogger(ProgressDownloader.class);
+    private static final long UPDATE_INTERVAL = 2000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MB = 1024 * 1024;
+    private final Configuration configuration;
+    private final HttpClient http;
+    private final ExecutorService executor;
 
-    private ProgressDownloader() {
-        throw new UnsupportedOperationException("This is a utility class.");
+    public ProgressDownloader(Configuration configuration) {
+        this.configuration = configuration;
+        http = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        executor = Executors.newFixedThreadPool(Math.max(1, configuration.downloads().parallelism()),
+                Thread.ofPlatform().name("downloader-", 0).daemon().factory());
     }
 
-    public static Optional<Path> download(SlashCommandInteractionEvent event, EventContext context, String downloadUrl) {
+    /**
+     * Downloads the file into a temporary file. The caller is responsible to delete the file after usage.
+     *
+     * @param event       event to reply to
+     * @param context     context of the event
+     * @param downloadUrl url of the file
+     * @return future which completes with the downloaded file or empty if the download failed
+     */
+    public CompletableFuture<Optional<Path>> download(SlashCommandInteractionEvent event, EventContext context, String downloadUrl) {
         event.reply(context.localize("command.server.util.progressdownloader.message.attempting")).queue();
+        return CompletableFuture.supplyAsync(() -> transfer(event, context, downloadUrl), executor);
+    }
 
+    private Optional<Path> transfer(SlashCommandInteractionEvent event, EventContext context, String downloadUrl) {
         Path path;
         try {
             path = TempFile.createFile("gamejam", ".file");
@@ -40,22 +78,200 @@ public final class ProgressDownloader {
             return Optional.empty();
         }
 
-        var request = HttpRequest.newBuilder(URI.create(downloadUrl)).GET().build();
-
         try {
-            event.getHook().editOriginal(context.localize("command.server.util.progressdownloader.message.downloading")).queue();
-            HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofFile(path));
-        } catch (IOException e) {
-            log.error("Failed to write response", e);
-            event.getHook().editOriginal(context.localize("command.server.util.progressdownloader.message.fail.download")).queue();
-            return Optional.empty();
-        } catch (InterruptedException e) {
-            log.error("Failed to retrieve response", e);
-            event.getHook().editOriginal(context.localize("command.server.util.progressdownloader.message.fail.download")).queue();
-            return Optional.empty();
+            return transfer(event, context, downloadUrl, path);
+        } catch (RuntimeException e) {
+            log.error("Failed to download file", e);
+            return fail(event, context, path, "command.server.util.progressdownloader.message.fail.download");
+        }
+    }
+
+    private Optional<Path> transfer(SlashCommandInteractionEvent event, EventContext context, String downloadUrl, Path path) {
+        event.getHook().editOriginal(context.localize("command.server.util.progressdownloader.message.downloading")).queue();
+        var limits = configuration.downloads();
+        var transfer = new Transfer(event, context, path, System.nanoTime() + TimeUnit.SECONDS.toNanos(limits.timeout()));
+        var attempt = 0;
+        while (true) {
+            try {
+                transfer.attempt(downloadUrl);
+                break;
+            } catch (DownloadFailure e) {
+                log.warn("Download of {} failed: {}", downloadUrl, e.getMessage());
+                return fail(event, context, path, e.key());
+            } catch (IOException e) {
+                if (transfer.expired()) {
+                    return fail(event, context, path, "command.server.util.progressdownloader.message.fail.timeout");
+                }
+                if (++attempt > limits.retries()) {
+                    log.error("Failed to download file", e);
+                    return fail(event, context, path, "command.server.util.progressdownloader.message.fail.download");
+                }
+                log.warn("Download of {} interrupted after {} bytes. Resuming.", downloadUrl, transfer.written);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted download", e);
+                return fail(event, context, path, "command.server.util.progressdownloader.message.fail.download");
+            }
         }
 
         event.getHook().editOriginal(context.localize("command.server.util.progressdownloader.message.done")).queue();
         return Optional.of(path);
     }
+
+    private Optional<Path> fail(SlashCommandInteractionEvent event, EventContext context, Path path, String key) {
+        event.getHook().editOriginal(context.localize(key)).queue();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temp file {}", path, e);
+        }
+        return Optional.empty();
+    }
+
+    private class Transfer {
+        private final SlashCommandInteractionEvent event;
+        private final EventContext context;
+        private final Path path;
+        private final long deadline;
+        private long written;
+        private long total = -1;
+        /**
+         * ETag or Last-Modified of the first response. Resuming is only possible if the file is known to be unchanged.
+         */
+        private String validator;
+        private long lastUpdate = System.currentTimeMillis();
+
+        private Transfer(SlashCommandInteractionEvent event, EventContext context, Path path, long deadline) {
+            this.event = event;
+            this.context = context;
+            this.path = path;
+            this.deadline = deadline;
+        }
+
+        private void attempt(String downloadUrl) throws IOException, InterruptedException {
+            var maxSize = configuration.downloads().maxSize();
+            var builder = HttpRequest.newBuilder(URI.create(downloadUrl))
+                    .timeout(remaining())
+                    .GET();
+            if (written > 0 && validator != null) {
+                builder.header("Range", "bytes=%d-".formatted(written));
+                builder.header("If-Range", validator);
+            }
+            var response = http.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+
+            boolean append;
+            if (response.statusCode() == 206 && rangeStart(response) == written) {
+                append = written > 0;
+                // Servers may answer the first request with a range as well.
+                if (!append) validator = validator(response);
+            } else if (response.statusCode() == 200) {
+                // The server ignored the range or the file changed. Start over.
+                append = false;
+                written = 0;
+                validator = validator(response);
+            } else if (response.statusCode() == 206 && written > 0) {
+                // A range which does not continue the partial file. Start over with a full download.
+                response.body().close();
+                written = 0;
+                validator = null;
+                attempt(downloadUrl);
+                return;
+            } else {
+                response.body().close();
+                if (response.statusCode() >= 500) throw new IOException("Server responded with " + response.statusCode());
+                throw new DownloadFailure("command.server.util.progressdownloader.message.fail.download",
+                        "Server responded with " + response.statusCode());
+            }
+
+            var length = response.headers().firstValueAsLong("Content-Length");
+            if (length.isPresent()) {
+                total = written + length.getAsLong();
+                if (total > maxSize) {
+                    response.body().close();
+                    throw new DownloadFailure("command.server.util.progressdownloader.message.fail.toolarge", "File has %d bytes".formatted(total));
+                }
+            }
+
+            var options = append
+                    ? new StandardOpenOption[]{StandardOpenOption.WRITE, StandardOpenOption.APPEND}
+                    : new StandardOpenOption[]{StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING};
+            // Abort reads which are still blocked once the time limit is reached.
+            var timeout = new CompletableFuture<Void>();
+            try (var in = response.body(); var out = Files.newOutputStream(path, options)) {
+                timeout.completeOnTimeout(null, remaining().toMillis(), TimeUnit.MILLISECONDS).thenRun(() -> close(in));
+                var buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    written += read;
+                    if (written > maxSize) {
+                        throw new DownloadFailure("command.server.util.progressdownloader.message.fail.toolarge", "File exceeds %d bytes".formatted(maxSize));
+                    }
+                    if (expired()) {
+                        throw new DownloadFailure("command.server.util.progressdownloader.message.fail.timeout", "Time limit reached");
+                    }
+                    out.write(buffer, 0, read);
+                    progress();
+                }
+            } finally {
+                // Releases the response stream instead of holding it until the time limit.
+                timeout.cancel(false);
+            }
+        }
+
+        private static long rangeStart(HttpResponse<?> response) {
+            // Content-Range: bytes <start>-<end>/<total>
+            var range = response.headers().firstValue("Content-Range").orElse("");
+            if (!range.startsWith("bytes ") || !range.contains("-")) return -1;
+            try {
+                return Long.parseLong(range.substring(6, range.indexOf('-')).trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        private static String validator(HttpResponse<?> response) {
+            // Weak etags are not allowed in If-Range.
+            var etag = response.headers().firstValue("ETag").filter(tag -> !tag.startsWith("W/"));
+            if (etag.isPresent()) return etag.get();
+            return response.headers().firstValue("Last-Modified").orElse(null);
+        }
+
+        private void progress() {
+            var now = System.currentTimeMillis();
+            if (now - lastUpdate < UPDATE_INTERVAL) return;
+            lastUpdate = now;
+            event.getHook().editOriginal(context.localize("command.server.util.progressdownloader.message.progress",
+                    Replacement.create("DOWNLOADED", written / MB),
+                    Replacement.create("TOTAL", total < 0 ? "?" : String.valueOf(total / MB)))).queue();
+        }
+
+        private boolean expired() {
+            return System.nanoTime() > deadline;
+        }
+
+        private Duration remaining() {
+            return Duration.ofNanos(Math.max(1, deadline - System.nanoTime()));
+        }
+
+        private static void close(InputStream in) {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static class DownloadFailure extends IOException {
+        private final String key;
+
+        private DownloadFailure(String key, String message) {
+            super(message);
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+    }
 }
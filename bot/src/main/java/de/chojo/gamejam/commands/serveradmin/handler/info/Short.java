@@ -10,6 +10,7 @@ import de.chojo.gamejam.data.access.Guilds;
 import de.chojo.gamejam.server.ServerService;
 import de.chojo.gamejam.server.TeamServer;
 import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
+import de.chojo.jdautil.localization.util.Replacement;
 import de.chojo.jdautil.wrapper.EventContext;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 
@@ -38,6 +39,13 @@ public class Short implements SlashHandler {
                          .map(TeamServer::status)
                          .collect(Collectors.joining("\n"));
 
-        event.reply(servers).queue();
+        var budget = serverService.admission().budget();
+        var header = context.localize("command.serveradmin.info.short.message.budget",
+                Replacement.create("COMMITTED", budget.committed()),
+                Replacement.create("LIMIT", budget.limit()),
+                Replacement.create("SERVERS", budget.servers()),
+                Replacement.create("QUEUED", budget.queued()));
+
+        event.reply(header + "\n" + servers).queue();
     }
 }
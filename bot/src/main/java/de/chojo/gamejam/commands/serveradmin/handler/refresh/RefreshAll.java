@@ -8,13 +8,16 @@ package de.chojo.gamejam.commands.serveradmin.handler.refresh;
 
 import de.chojo.gamejam.data.access.Guilds;
 import de.chojo.gamejam.server.ServerService;
-import de.chojo.gamejam.server.TeamServer;
 import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
 import de.chojo.jdautil.localization.util.Replacement;
 import de.chojo.jdautil.wrapper.EventContext;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import org.slf4j.Logger;
+
+import static org.slf4j.LoggerFactory.getLogger;
 
 public class RefreshAll implements SlashHandler {
+    private static final Logger log = getLogger(RefreshAll.class);
     private final ServerService serverService;
     private final Guilds guilds;
 
@@ -32,12 +35,14 @@ public class RefreshAll implements SlashHandler {
         }
         var jam = currentJam.get();
 
-        var count = jam.teams().teams().stream()
-                       .map(serverService::get)
-                       .map(TeamServer::refresh)
-                       .filter(v -> v)
-                       .count();
-        event.reply(context.localize("command.serveradmin.refresh.refreshall.message.refreshed",
-                Replacement.create("AMOUNT", count))).queue();
+        event.deferReply().queue();
+        serverService.refreshAll(jam.teams().teams())
+                .thenAccept(count -> event.getHook().editOriginal(context.localize("command.serveradmin.refresh.refreshall.message.refreshed",
+                        Replacement.create("AMOUNT", count))).queue())
+                .exceptionally(err -> {
+                    log.error("Could not refresh servers", err);
+                    event.getHook().editOriginal(context.localize("command.serveradmin.refresh.refreshall.message.fail")).queue();
+                    return null;
+                });
     }
 }
@@ -6,10 +6,11 @@
 
 package de.chojo.gamejam.commands.serveradmin.handler.restart;
 
+import de.chojo.gamejam.commands.serveradmin.util.BulkProgress;
 import de.chojo.gamejam.data.access.Guilds;
 import de.chojo.gamejam.server.ServerService;
+import de.chojo.gamejam.server.bulk.BulkAction;
 import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
-import de.chojo.jdautil.localization.util.Replacement;
 import de.chojo.jdautil.wrapper.EventContext;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 
@@ -31,17 +32,7 @@ public class RestartAll implements SlashHandler {
         }
         var jam = currentJam.get();
 
-        var count = jam.teams().teams().stream()
-                       .map(serverService::get)
-                       .filter(server -> {
-                           var running = server.running();
-                           if (running) {
-                               server.stop(true);
-                           }
-                           return running;
-                       })
-                       .count();
-        event.reply(context.localize("command.serveradmin.restart.restartall.message.restarted",
-                Replacement.create("AMOUNT", count))).queue();
+        BulkProgress.run(event, context, serverService, BulkAction.RESTART, jam.teams().teams(),
+                "command.serveradmin.restart.restartall.message.restarted");
     }
 }
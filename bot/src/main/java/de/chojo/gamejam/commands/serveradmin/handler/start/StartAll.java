@@ -6,11 +6,11 @@
 
 package de.chojo.gamejam.commands.serveradmin.handler.start;
 
+import de.chojo.gamejam.commands.serveradmin.util.BulkProgress;
 import de.chojo.gamejam.data.access.Guilds;
 import de.chojo.gamejam.server.ServerService;
-import de.chojo.gamejam.server.TeamServer;
+import de.chojo.gamejam.server.bulk.BulkAction;
 import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
-import de.chojo.jdautil.localization.util.Replacement;
 import de.chojo.jdautil.wrapper.EventContext;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 
@@ -32,12 +32,7 @@ public class StartAll implements SlashHandler {
         }
         var jam = currentJam.get();
 
-        var count = jam.teams().teams().stream()
-                        .map(serverService::get)
-                        .map(TeamServer::start)
-                        .filter(v -> v)
-                        .count();
-        event.reply(context.localize("command.serveradmin.start.startall.message.started",
-                Replacement.create("AMOUNT", count))).queue();
+        BulkProgress.run(event, context, serverService, BulkAction.START, jam.teams().teams(),
+                "command.serveradmin.start.startall.message.started");
     }
 }
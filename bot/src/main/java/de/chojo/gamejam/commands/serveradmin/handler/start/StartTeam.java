@@ -8,7 +8,6 @@ package de.chojo.gamejam.commands.serveradmin.handler.start;
 
 import de.chojo.gamejam.data.access.Guilds;
 import de.chojo.gamejam.server.ServerService;
-import de.chojo.gamejam.server.TeamServer;
 import de.chojo.jdautil.interactions.slash.structure.handler.SlashHandler;
 import de.chojo.jdautil.localization.util.Replacement;
 import de.chojo.jdautil.wrapper.EventContext;
@@ -42,8 +41,17 @@ public class StartTeam implements SlashHandler {
             return;
         }
 
-        var started = optTeam.map(serverService::get).map(TeamServer::start).orElse(false);
-        if (started) {
+        var start = serverService.get(optTeam.get()).requestStart();
+        if (!start.isDone()) {
+            event.reply(context.localize("command.serveradmin.start.startteam.message.queued",
+                    Replacement.create("TEAM", optTeam.get()))).queue();
+            start.thenAccept(started -> event.getHook().editOriginal(context.localize(started
+                            ? "command.serveradmin.start.startteam.message.started"
+                            : "command.serveradmin.start.startteam.message.failed",
+                    Replacement.create("TEAM", optTeam.get()))).queue());
+            return;
+        }
+        if (start.join()) {
             event.reply(context.localize("command.serveradmin.start.startteam.message.started",
                     Replacement.create("TEAM", optTeam.get()))).queue();
         } else {
@@ -0,0 +1,59 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.commands.serveradmin.util;
+
+import de.chojo.gamejam.data.dao.guild.jams.jam.teams.Team;
+import de.chojo.gamejam.server.ServerService;
+import de.chojo.gamejam.server.bulk.BulkAction;
+import de.chojo.gamejam.server.bulk.BulkRun;
+import de.chojo.jdautil.localization.util.Replacement;
+import de.chojo.jdautil.wrapper.EventContext;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a bulk action and reports its progress in the reply of the command.
+ */
+public final class BulkProgress {
+    private static final long UPDATE_INTERVAL = 2000;
+
+    private BulkProgress() {
+        throw new UnsupportedOperationException("This is a utility class.");
+    }
+
+    /**
+     * Executes the action on the servers of the teams and reports the progress.
+     *
+     * @param event         event
+     * @param context       context
+     * @param serverService server service
+     * @param action        action to execute
+     * @param teams         teams
+     * @param doneKey       localization key of the final message
+     */
+    public static void run(SlashCommandInteractionEvent event, EventContext context, ServerService serverService,
+                           BulkAction action, List<Team> teams, String doneKey) {
+        event.deferReply().queue();
+        var lastUpdate = new AtomicLong(System.currentTimeMillis());
+        var run = serverService.bulk(action, teams, progress -> {
+            var last = lastUpdate.get();
+            var now = System.currentTimeMillis();
+            if (progress.done() == progress.total() || now - last < UPDATE_INTERVAL) return;
+            if (!lastUpdate.compareAndSet(last, now)) return;
+            event.getHook().editOriginal(context.localize("command.serveradmin.bulk.message.progress",
+                    Replacement.create("DONE", progress.done()),
+                    Replacement.create("TOTAL", progress.total()),
+                    Replacement.create("DURATION", progress.elapsed().toSeconds()))).queue();
+        });
+        run.completion().thenAccept(result -> event.getHook().editOriginal(context.localize(doneKey,
+                Replacement.create("AMOUNT", result.succeeded()),
+                Replacement.create("TOTAL", result.total()),
+                Replacement.create("DURATION", result.elapsed().toSeconds()))).queue());
+    }
+}
@@ -40,6 +40,7 @@ public class Api implements SlashHandler {
                 .setTitle("Api")
                 .addField("Token", "`%s`".formatted(optTeam.get().meta().token()), false)
                 .addField("Upload", "`POST %s/api/v1/server/plugin/%s`".formatted(configuration.api().url(), optTeam.get().meta().token()), false)
+                .addField("command.team.api.message.parameter", "command.team.api.message.parametervalue", false)
                 .build();
 
         event.replyEmbeds(build).setEphemeral(true).queue();
@@ -45,14 +45,7 @@ public class Vote implements SlashHandler {
             return;
         }
 
-        if (!jam.registrations().contains(event.getMember().getIdLong())) {
-            event.getHook().editOriginal(context.localize("error.notregistered")).queue();
-            return;
-        }
-
-        var teams = jam.teams();
-        var teamCount = teams.teams().size();
-        var optVoteTeam = teams.byName(event.getOption("team").getAsString());
+        var optVoteTeam = jam.teams().byName(event.getOption("team").getAsString());
 
         if (optVoteTeam.isEmpty()) {
             event.getHook().editOriginal(context.localize("error.unkownteam")).queue();
@@ -61,35 +54,25 @@ public class Vote implements SlashHandler {
 
         var voteTeam = optVoteTeam.get();
 
-        if (voteTeam.member(event.getMember()).isPresent()) {
-            event.getHook().editOriginal(context.localize("command.votes.vote.message.ownteam")).queue();
-            return;
-        }
-
-        var user = jam.user(event.getMember());
-
-        var pointsGiven = user.votesGiven();
-
         //TODO: Max points and max points per team are currently hardcoded. should be configurable in the future.
         var points = Math.min(5, Math.max(0, event.getOption("points").getAsInt()));
 
-        var votes = voteTeam.votes(event.getMember());
-
-        if (votes < points && pointsGiven + points > teamCount) {
-            event.getHook().editOriginal(context.localize("command.votes.vote.message.maxpointsreached",
-                         Replacement.create("REMAINING", teamCount - pointsGiven)
-                                 .addFormatting(Format.BOLD)))
-                 .queue();
-            return;
-        }
-
-        voteTeam.vote(event.getMember(), points);
-
-        event.getHook().editOriginal(context.localize("command.votes.vote.message.done",
-                     Replacement.create("REMAINING", teamCount - user.votesGiven()).addFormatting(Format.BOLD),
-                     Replacement.create("POINTS", points).addFormatting(Format.BOLD),
-                     Replacement.create("TEAM", voteTeam.meta().name()).addFormatting(Format.BOLD)))
-             .queue();
+        // Registration, own team and the budget are checked by the vote itself.
+        var result = voteTeam.vote(event.getMember(), points);
+
+        var message = switch (result.status()) {
+            case VOTED -> context.localize("command.votes.vote.message.done",
+                    Replacement.create("REMAINING", result.remaining()).addFormatting(Format.BOLD),
+                    Replacement.create("POINTS", points).addFormatting(Format.BOLD),
+                    Replacement.create("TEAM", voteTeam.meta().name()).addFormatting(Format.BOLD));
+            case UNKNOWN_TEAM -> context.localize("error.unkownteam");
+            case NOT_VOTING -> context.localize("command.votes.vote.message.notactive");
+            case NOT_REGISTERED -> context.localize("error.notregistered");
+            case OWN_TEAM -> context.localize("command.votes.vote.message.ownteam");
+            case BUDGET_EXCEEDED -> context.localize("command.votes.vote.message.maxpointsreached",
+                    Replacement.create("REMAINING", result.remaining()).addFormatting(Format.BOLD));
+        };
+        event.getHook().editOriginal(message).queue();
     }
 
     @Override
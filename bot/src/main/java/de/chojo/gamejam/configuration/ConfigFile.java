@@ -9,6 +9,7 @@ package de.chojo.gamejam.configuration;
 import de.chojo.gamejam.configuration.elements.Api;
 import de.chojo.gamejam.configuration.elements.BaseSettings;
 import de.chojo.gamejam.configuration.elements.Database;
+import de.chojo.gamejam.configuration.elements.Downloads;
 import de.chojo.gamejam.configuration.elements.Plugins;
 import de.chojo.gamejam.configuration.elements.ServerManagement;
 import de.chojo.gamejam.configuration.elements.ServerTemplate;
@@ -21,6 +22,7 @@ public class ConfigFile {
     private ServerManagement serverManagement = new ServerManagement();
     private Plugins plugins = new Plugins();
     private ServerTemplate serverTemplate = new ServerTemplate();
+    private Downloads downloads = new Downloads();
 
     public BaseSettings baseSettings() {
         return baseSettings;
@@ -45,4 +47,8 @@ public class ConfigFile {
     public ServerTemplate serverTemplate() {
         return serverTemplate;
     }
+
+    public Downloads downloads() {
+        return downloads;
+    }
 }
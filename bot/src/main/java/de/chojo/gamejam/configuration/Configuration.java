@@ -16,6 +16,7 @@ import com.fasterxml.jackson.databind.json.JsonMapper;
 import de.chojo.gamejam.configuration.elements.Api;
 import de.chojo.gamejam.configuration.elements.BaseSettings;
 import de.chojo.gamejam.configuration.elements.Database;
+import de.chojo.gamejam.configuration.elements.Downloads;
 import de.chojo.gamejam.configuration.elements.Plugins;
 import de.chojo.gamejam.configuration.elements.ServerManagement;
 import de.chojo.gamejam.configuration.elements.ServerTemplate;
@@ -123,4 +124,8 @@ public class Configuration {
     public ServerTemplate serverTemplate() {
         return configFile.serverTemplate();
     }
+
+    public Downloads downloads() {
+        return configFile.downloads();
+    }
 }
@@ -12,6 +12,7 @@ public class Api {
     private int port = 8888;
     private String token = "letmein";
     private String url = "http://localhost:8888";
+    private int maxPluginSize = 64;
 
     public String host() {
         return host;
@@ -28,4 +29,13 @@ public class Api {
     public String url() {
         return url;
     }
+
+    /**
+     * Maximum size of an uploaded plugin.
+     *
+     * @return size in bytes
+     */
+    public long maxPluginSize() {
+        return maxPluginSize * 1024L * 1024L;
+    }
 }
@@ -16,6 +16,7 @@ public class Database {
     private String user = "root";
     private String password = "changeme";
     private int poolSize = 5;
+    private boolean changeNotifications = true;
 
     public String host() {
         return host;
@@ -44,4 +45,14 @@ public class Database {
     public int poolSize() {
         return poolSize;
     }
+
+    /**
+     * Whether cached data is invalidated by change notifications of the database.
+     * Required when several bot instances share a database or rows are edited by hand.
+     *
+     * @return true if change notifications are enabled
+     */
+    public boolean changeNotifications() {
+        return changeNotifications;
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.configuration.elements;
+
+@SuppressWarnings({"FieldMayBeFinal", "FieldCanBeLocal"})
+public class Downloads {
+    private int parallelism = 4;
+    private int maxSize = 1024;
+    private int timeout = 600;
+    private int retries = 3;
+
+    /**
+     * Maximum amount of downloads running at the same time.
+     *
+     * @return amount of downloads
+     */
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Maximum size of a downloaded file.
+     *
+     * @return size in bytes
+     */
+    public long maxSize() {
+        return maxSize * 1024L * 1024L;
+    }
+
+    /**
+     * Maximum duration of a download in seconds.
+     *
+     * @return duration in seconds
+     */
+    public int timeout() {
+        return timeout;
+    }
+
+    /**
+     * Amount of attempts to resume an interrupted download.
+     *
+     * @return amount of retries
+     */
+    public int retries() {
+        return retries;
+    }
+}
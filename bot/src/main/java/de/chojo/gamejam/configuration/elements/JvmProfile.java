@@ -0,0 +1,67 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.configuration.elements;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SuppressWarnings({"FieldMayBeFinal", "FieldCanBeLocal"})
+public class JvmProfile {
+    private int memory = 0;
+    private String gc = "G1";
+    private boolean aikarFlags = true;
+    private boolean cds = false;
+    private List<String> flags = new ArrayList<>();
+
+    /**
+     * Heap size of the server in MB.
+     *
+     * @param defaultMemory memory used when the profile does not define a heap size
+     * @return heap size in MB
+     */
+    public int memory(int defaultMemory) {
+        return memory > 0 ? memory : defaultMemory;
+    }
+
+    /**
+     * Name of the garbage collector. e.g. G1, Z, Shenandoah or Parallel.
+     *
+     * @return name of the garbage collector
+     */
+    public String gc() {
+        return gc;
+    }
+
+    /**
+     * Whether the flags by aikar should be used. They are only applied when G1 is used.
+     *
+     * @return true if aikar flags should be used
+     */
+    public boolean aikarFlags() {
+        return aikarFlags;
+    }
+
+    /**
+     * Whether a shared class data archive should be created and used for this profile. Disabled by default.
+     * <p>
+     * Servers of this profile are launched with the java executable found on the path, which the archive is bound to.
+     *
+     * @return true if cds is enabled
+     */
+    public boolean cds() {
+        return cds;
+    }
+
+    /**
+     * Additional jvm flags of this profile.
+     *
+     * @return list of flags
+     */
+    public List<String> flags() {
+        return flags;
+    }
+}
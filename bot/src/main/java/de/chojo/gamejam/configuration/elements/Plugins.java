@@ -6,13 +6,6 @@
 
 package de.chojo.gamejam.configuration.elements;
 
-import de.chojo.jdautil.container.Pair;
-
-import java.io.File;
-import java.nio.file.Path;
-import java.util.List;
-import java.util.Optional;
-
 @SuppressWarnings({"FieldMayBeFinal", "FieldCanBeLocal"})
 public class Plugins {
     private String pluginDir = "plugins";
@@ -20,30 +13,4 @@ public class Plugins {
     public String pluginDir() {
         return pluginDir;
     }
-
-    private Path pluginPath() {
-        return Path.of(pluginDir);
-    }
-
-    public List<File> pluginFiles() {
-        return List.of(pluginPath().toFile().listFiles(File::isFile));
-    }
-
-    public List<String> pluginNames() {
-        return pluginFiles().stream()
-                            .map(File::getName)
-                            .map(name -> name.replace(".jar", "")).toList();
-    }
-
-    public List<Pair<String, File>> plugins() {
-        return pluginFiles().stream()
-                            .map(file -> Pair.of(file.getName().replace(".jar", ""), file))
-                            .toList();
-    }
-
-    public Optional<Path> byName(String pluginName) {
-        return plugins().stream().filter(plugin -> plugin.first.equals(pluginName))
-                        .findFirst()
-                        .map(plugin -> plugin.second.toPath());
-    }
 }
@@ -7,7 +7,9 @@
 package de.chojo.gamejam.configuration.elements;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @SuppressWarnings({"FieldMayBeFinal", "FieldCanBeLocal"})
 public class ServerManagement {
@@ -18,6 +20,30 @@ public class ServerManagement {
     private int velocityPort = 30000;
     private int maxPlayers = 50;
     private int memory = 1024;
+    private int pollTimeout = 2000;
+    private int pollConcurrency = 32;
+    private boolean pushRequests = true;
+    private int fallbackPollInterval = 60;
+    private String processBackend = "screen";
+    private int stopTimeout = 120;
+    private int consoleLines = 500;
+    private int logLines = 1000;
+    private boolean streamConsole = false;
+    private int consoleStreamInterval = 3;
+    private int processLogSegmentSize = 1;
+    private int processLogRetentionSize = 20;
+    private int processLogRetentionDays = 14;
+    private int purgeParallelism = 4;
+    private int bulkParallelism = 4;
+    private int bulkStagger = 10;
+    private int bulkAdmissionTimeout = 300;
+    private int memoryReserve = 1024;
+    private int memoryLimit = 0;
+    private int memoryOverhead = 256;
+    private String admissionMode = "queue";
+    private String defaultProfile = "default";
+    private Map<String, JvmProfile> profiles = new HashMap<>(Map.of("default", new JvmProfile()));
+    private Map<Integer, String> teamProfiles = new HashMap<>();
 
     private List<String> parameter = new ArrayList<>();
 
@@ -45,6 +71,220 @@ public class ServerManagement {
         return memory;
     }
 
+    /**
+     * Timeout in milliseconds for a single request poll of a team server.
+     *
+     * @return timeout in milliseconds
+     */
+    public int pollTimeout() {
+        return pollTimeout;
+    }
+
+    /**
+     * Maximum amount of team servers polled at the same time.
+     *
+     * @return amount of concurrent polls
+     */
+    public int pollConcurrency() {
+        return pollConcurrency;
+    }
+
+    /**
+     * Whether team servers push their requests to the bot api. Polling is then only used as a fallback.
+     *
+     * @return true when push is enabled
+     */
+    public boolean pushRequests() {
+        return pushRequests;
+    }
+
+    /**
+     * Interval in seconds in which team servers are polled when {@link #pushRequests()} is enabled.
+     *
+     * @return interval in seconds
+     */
+    public int fallbackPollInterval() {
+        return fallbackPollInterval;
+    }
+
+    /**
+     * Whether team servers run inside a screen session instead of being supervised by the bot.
+     * <p>
+     * Screen is the default. Supervised servers which were started by another bot instance can only be stopped, as
+     * their console is not attached to this bot.
+     *
+     * @return true if the process backend is screen
+     */
+    public boolean screenBackend() {
+        return "screen".equalsIgnoreCase(processBackend);
+    }
+
+    /**
+     * Time in seconds until a supervised server gets killed after a stop request.
+     *
+     * @return timeout in seconds
+     */
+    public int stopTimeout() {
+        return stopTimeout;
+    }
+
+    /**
+     * Amount of console lines kept in memory per supervised server.
+     *
+     * @return amount of lines
+     */
+    public int consoleLines() {
+        return consoleLines;
+    }
+
+    /**
+     * Amount of lines of the server log kept in memory per followed server.
+     *
+     * @return amount of lines
+     */
+    public int logLines() {
+        return logLines;
+    }
+
+    /**
+     * Whether the console of a server is streamed into the text channel of its team once the server starts.
+     *
+     * @return true if streaming is enabled by default
+     */
+    public boolean streamConsole() {
+        return streamConsole;
+    }
+
+    /**
+     * Time in seconds after which collected console lines are sent, even if the message is not full yet.
+     *
+     * @return interval in seconds
+     */
+    public int consoleStreamInterval() {
+        return consoleStreamInterval;
+    }
+
+    /**
+     * Size in MB after which a process log is rotated.
+     *
+     * @return segment size in MB
+     */
+    public int processLogSegmentSize() {
+        return processLogSegmentSize;
+    }
+
+    /**
+     * Size in MB of compressed process logs kept per server.
+     *
+     * @return retention size in MB
+     */
+    public int processLogRetentionSize() {
+        return processLogRetentionSize;
+    }
+
+    /**
+     * Days after which compressed process logs are deleted.
+     *
+     * @return retention in days
+     */
+    public int processLogRetentionDays() {
+        return processLogRetentionDays;
+    }
+
+    /**
+     * Amount of parallel workers deleting purged directories.
+     *
+     * @return amount of workers
+     */
+    public int purgeParallelism() {
+        return purgeParallelism;
+    }
+
+    /**
+     * Maximum amount of servers processed at the same time by bulk actions.
+     *
+     * @return amount of servers
+     */
+    public int bulkParallelism() {
+        return bulkParallelism;
+    }
+
+    /**
+     * Time in seconds a started server occupies a bulk slot while warming up.
+     *
+     * @return stagger in seconds
+     */
+    public int bulkStagger() {
+        return bulkStagger;
+    }
+
+    /**
+     * Time in seconds a bulk start waits for enough free host memory before the server is skipped.
+     *
+     * @return timeout in seconds
+     */
+    public int bulkAdmissionTimeout() {
+        return bulkAdmissionTimeout;
+    }
+
+    /**
+     * Memory in MB which should stay available on the host in addition to the memory of a new server.
+     *
+     * @return memory in MB
+     */
+    public int memoryReserve() {
+        return memoryReserve;
+    }
+
+    /**
+     * Memory in MB available for team servers. If 0 the limit of the cgroup or host is used.
+     *
+     * @return memory limit in MB
+     */
+    public int memoryLimit() {
+        return memoryLimit;
+    }
+
+    /**
+     * Memory in MB a server uses in addition to its heap.
+     *
+     * @return memory in MB
+     */
+    public int memoryOverhead() {
+        return memoryOverhead;
+    }
+
+    /**
+     * Whether servers exceeding the memory budget are queued until memory is released instead of being rejected.
+     *
+     * @return true if the admission mode is queue
+     */
+    public boolean queueAdmission() {
+        return "queue".equalsIgnoreCase(admissionMode);
+    }
+
+    /**
+     * Name of the jvm profile used by the server of a team.
+     *
+     * @param teamId id of the team
+     * @return name of the profile
+     */
+    public String profileName(int teamId) {
+        var name = teamProfiles.getOrDefault(teamId, defaultProfile);
+        return profiles.containsKey(name) ? name : defaultProfile;
+    }
+
+    /**
+     * The jvm profile used by the server of a team.
+     *
+     * @param teamId id of the team
+     * @return the assigned profile or the default profile
+     */
+    public JvmProfile profile(int teamId) {
+        var profile = profiles.get(profileName(teamId));
+        return profile != null ? profile : new JvmProfile();
+    }
+
     public String serverDir() {
         return serverDir;
     }
@@ -24,6 +24,8 @@ public class ServerTemplate {
             "server.properties",
             "spigot.yml",
             "wepif.yml");
+    private boolean hardLinks = false;
+    private List<String> immutable = List.of();
 
     public String templateDir() {
         return templateDir;
@@ -32,4 +34,28 @@ public class ServerTemplate {
     public List<String> symLinks() {
         return symLinks;
     }
+
+    /**
+     * Whether immutable files should be hard linked into the server directory instead of being copied.
+     * <p>
+     * A hard linked file shares its content with the template and all other servers. A server writing to it corrupts
+     * it for everyone.
+     *
+     * @return true if hard links should be used
+     */
+    public boolean hardLinks() {
+        return hardLinks;
+    }
+
+    /**
+     * Glob patterns relative to the template directory. Matching files are never modified by the server and can be shared between servers.
+     * <p>
+     * Only list files which are never opened for writing. Paperclip patches jars in cache and versions, downloads
+     * libraries and plugins may update their own jars in place. Files not listed are copied.
+     *
+     * @return list of glob patterns
+     */
+    public List<String> immutable() {
+        return immutable;
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.data.access;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import de.chojo.gamejam.configuration.elements.Database;
+import de.chojo.gamejam.data.dao.guild.jams.Jam;
+import de.chojo.gamejam.util.Mapper;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Listens for changes published by the database triggers and invalidates the affected cached data.
+ * <p>
+ * The listener holds its own connection outside the pool, as the pool may close or reuse connections at any time.
+ * When the connection is lost, all cached data is dropped, as changes might have been missed in the meantime.
+ */
+public class ChangeListener {
+    private static final Logger log = getLogger(ChangeListener.class);
+    private static final String CHANNEL = "jam_changes";
+    private static final int POLL_TIMEOUT = 1000;
+    private static final long RECONNECT_DELAY = 5000;
+    // A half-open connection does not fail while polling. Queries are sent every 30 polls to detect it.
+    private static final int KEEPALIVE_POLLS = 30;
+    private static final int SOCKET_TIMEOUT = 30;
+    private final Guilds guilds;
+    private final Database database;
+    private volatile boolean running = true;
+
+    private ChangeListener(Guilds guilds, Database database) {
+        this.guilds = guilds;
+        this.database = database;
+    }
+
+    public static ChangeListener create(Guilds guilds, Database database) {
+        var listener = new ChangeListener(guilds, database);
+        Thread.ofPlatform().name("db-changes").daemon().start(listener::run);
+        return listener;
+    }
+
+    public void shutdown() {
+        running = false;
+    }
+
+    private void run() {
+        while (running) {
+            try (var conn = connect()) {
+                try (var stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for database changes");
+                // Changes made before the listen or while disconnected are unknown.
+                guilds.invalidateAll();
+                listen(conn);
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("Lost connection for database changes. Reconnecting in {} ms", RECONNECT_DELAY, e);
+            }
+            try {
+                Thread.sleep(RECONNECT_DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void listen(Connection conn) throws SQLException {
+        var pgConn = conn.unwrap(PGConnection.class);
+        var polls = 0;
+        while (running) {
+            if (++polls % KEEPALIVE_POLLS == 0) keepalive(conn);
+            var notifications = pgConn.getNotifications(POLL_TIMEOUT);
+            if (notifications == null) continue;
+            for (var notification : notifications) {
+                try {
+                    apply(Mapper.MAPPER.readValue(notification.getParameter(), Change.class));
+                } catch (JsonProcessingException e) {
+                    log.warn("Could not parse database change {}", notification.getParameter(), e);
+                } catch (RuntimeException e) {
+                    log.error("Failed to apply database change {}", notification.getParameter(), e);
+                }
+            }
+        }
+    }
+
+    private void keepalive(Connection conn) throws SQLException {
+        try (var stmt = conn.createStatement()) {
+            stmt.execute("SELECT 1");
+        }
+    }
+
+    private void apply(Change change) {
+        // Databases may host several bots in different schemas.
+        if (!database.schema().equals(change.schema())) return;
+        var jam = guilds.cached(change.guild()).flatMap(guild -> guild.jams().cached(change.jam()));
+        switch (change.table()) {
+            case "jam_state" -> {
+                guilds.cached(change.guild()).ifPresent(guild -> guild.jams().invalidate());
+                jam.ifPresent(Jam::invalidate);
+            }
+            case "vote" -> jam.ifPresent(j -> {
+                j.teams().invalidatePoints(change.team());
+                j.leaderboard().refresh(change.team());
+            });
+            case "team" -> jam.ifPresent(j -> {
+                j.teams().invalidate();
+                if ("DELETE".equals(change.operation())) j.leaderboard().remove(change.team());
+            });
+            case "team_meta", "team_member" -> jam.ifPresent(j -> j.teams().invalidate());
+            default -> log.debug("Ignoring change of {}", change.table());
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        var properties = new Properties();
+        properties.setProperty("user", database.user());
+        properties.setProperty("password", database.password());
+        properties.setProperty("currentSchema", database.schema());
+        // Fails the keepalive query instead of blocking forever when the server is gone.
+        properties.setProperty("socketTimeout", String.valueOf(SOCKET_TIMEOUT));
+        properties.setProperty("tcpKeepAlive", "true");
+        var url = "jdbc:postgresql://%s:%s/%s".formatted(database.host(), database.port(), database.database());
+        return DriverManager.getConnection(url, properties);
+    }
+
+    private record Change(String schema, String table, String operation, long guild, int jam, Integer team) {
+    }
+}
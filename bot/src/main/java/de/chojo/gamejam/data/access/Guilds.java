@@ -13,6 +13,7 @@ import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.interactions.Interaction;
 
 import javax.sql.DataSource;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -38,6 +39,23 @@ public class Guilds {
 
     }
 
+    /**
+     * Gets a guild if it is cached without creating it.
+     *
+     * @param guild id of the guild
+     * @return guild if cached
+     */
+    public Optional<JamGuild> cached(long guild) {
+        return Optional.ofNullable(cache.getIfPresent(guild));
+    }
+
+    /**
+     * Drops the cached data of all guilds.
+     */
+    public void invalidateAll() {
+        cache.asMap().values().forEach(guild -> guild.jams().invalidateAll());
+    }
+
     public JamGuild guild(long guild) {
         try {
             return cache.get(guild, () -> new JamGuild(guild));
@@ -6,19 +6,32 @@
 
 package de.chojo.gamejam.data.dao.guild;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import de.chojo.gamejam.data.dao.JamGuild;
 import de.chojo.gamejam.data.dao.guild.jams.Jam;
 import de.chojo.gamejam.data.wrapper.jam.JamCreator;
 import de.chojo.sadu.queries.api.configuration.QueryConfiguration;
 
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static de.chojo.sadu.queries.api.call.Call.call;
 import static de.chojo.sadu.queries.api.query.Query.query;
 
 public class Jams {
-
     private final JamGuild jamGuild;
+    /**
+     * Jam instances by id. Keeping the instances keeps the data cached by them.
+     */
+    private final Cache<Integer, Jam> jams = CacheBuilder.newBuilder().expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+    /**
+     * Results of the time based lookups. They expire quickly as they depend on the current time.
+     */
+    private final Cache<Lookup, Optional<Integer>> lookups = CacheBuilder.newBuilder().expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
 
     public Jams(JamGuild jamGuild) {
         this.jamGuild = jamGuild;
@@ -57,10 +70,11 @@ public class Jams {
                         return id;
                     });
         }
+        invalidate();
     }
 
     public Optional<Jam> getCurrentJam() {
-        return query("""
+        return lookup(Lookup.CURRENT, () -> query("""
                 SELECT
                     id
                 FROM jam_time t
@@ -70,12 +84,12 @@ public class Jams {
                     AND guild_id = ?;
                 """)
                 .single(call().bind(jamGuild.guildId()))
-                .map(r -> new Jam(jamGuild, r.getInt("id")))
-                .first();
+                .map(r -> r.getInt("id"))
+                .first());
     }
 
     public Optional<Jam> nextOrCurrent() {
-        return query("""
+        return lookup(Lookup.NEXT_OR_CURRENT, () -> query("""
                 SELECT
                     id
                 FROM jam_time t
@@ -88,12 +102,11 @@ public class Jams {
                 """)
                 .single(call().bind(jamGuild.guildId()))
                 .map(r -> r.getInt("id"))
-                .first()
-                .flatMap(this::byId);
+                .first());
     }
 
     public Optional<Jam> activeJam() {
-        return query("""
+        return lookup(Lookup.ACTIVE, () -> query("""
                 SELECT
                     id
                 FROM jam_state s
@@ -104,16 +117,59 @@ public class Jams {
                 """)
                 .single(call().bind(jamGuild.guildId()))
                 .map(r -> r.getInt("id"))
-                .first()
-                .flatMap(this::byId);
+                .first());
     }
 
     public Optional<Jam> byId(int id) {
-        return query("""
+        var cached = jams.getIfPresent(id);
+        if (cached != null) return Optional.of(cached);
+        var jam = query("""
                 SELECT id FROM jam WHERE guild_id = ? AND id = ?
                 """)
                 .single(call().bind(jamGuild.guildId()).bind(id))
                 .map(row -> new Jam(jamGuild, id))
                 .first();
+        jam.ifPresent(j -> jams.put(id, j));
+        return jam;
+    }
+
+    /**
+     * Gets a jam if it is cached without loading it.
+     *
+     * @param id id of the jam
+     * @return jam if cached
+     */
+    public Optional<Jam> cached(int id) {
+        return Optional.ofNullable(jams.getIfPresent(id));
+    }
+
+    /**
+     * Drops all cached jams and lookups.
+     */
+    public void invalidateAll() {
+        lookups.invalidateAll();
+        jams.invalidateAll();
+    }
+
+    /**
+     * Invalidates the cached results of the time and state based jam lookups.
+     * <p>
+     * Called when a jam is created or its state changes.
+     */
+    public void invalidate() {
+        lookups.invalidateAll();
+    }
+
+    private Optional<Jam> lookup(Lookup lookup, Supplier<Optional<Integer>> query) {
+        var id = lookups.getIfPresent(lookup);
+        if (id == null) {
+            id = query.get();
+            lookups.put(lookup, id);
+        }
+        return id.flatMap(this::byId);
+    }
+
+    private enum Lookup {
+        CURRENT, NEXT_OR_CURRENT, ACTIVE
     }
 }
@@ -22,11 +22,11 @@ public class Teams {
     }
 
     public Optional<Team> byId(int id) {
-        return query("SELECT jam_id, id, team_name FROM team t LEFT JOIN team_meta m ON t.id = m.team_id WHERE id = ?")
+        return query("SELECT jam_id FROM team WHERE id = ?")
                 .single(call().bind(id))
-                .map(r -> {
-                    var team = guild.jams().byId(r.getInt("jam_id")).orElse(null);
-                    return new Team(team, r.getInt("id"));
-                }).first();
+                .map(r -> r.getInt("jam_id"))
+                .first()
+                .flatMap(jamId -> guild.jams().byId(jamId))
+                .flatMap(jam -> jam.teams().byId(id));
     }
 }
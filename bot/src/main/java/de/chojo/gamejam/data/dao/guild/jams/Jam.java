@@ -11,6 +11,7 @@ import de.chojo.gamejam.data.dao.guild.jams.jam.JamMeta;
 import de.chojo.gamejam.data.dao.guild.jams.jam.JamState;
 import de.chojo.gamejam.data.dao.guild.jams.jam.JamTeams;
 import de.chojo.gamejam.data.dao.guild.jams.jam.JamTimes;
+import de.chojo.gamejam.data.dao.guild.jams.jam.Leaderboard;
 import de.chojo.gamejam.data.dao.guild.jams.jam.teams.team.TeamVote;
 import de.chojo.gamejam.data.dao.guild.jams.jam.user.JamUser;
 import de.chojo.gamejam.data.wrapper.jam.TimeFrame;
@@ -26,11 +27,16 @@ public class Jam {
     private final JamGuild jamGuild;
     private final int id;
     private final JamTeams jamTeams;
+    private final Leaderboard leaderboard;
+    private volatile JamMeta meta;
+    private volatile JamTimes times;
+    private volatile JamState state;
 
     public Jam(JamGuild jamGuild, int id) {
         this.jamGuild = jamGuild;
         this.id = id;
         jamTeams = new JamTeams(this);
+        leaderboard = new Leaderboard(this);
     }
 
     public void register(Member member) {
@@ -40,13 +46,18 @@ public class Jam {
     }
 
     public JamMeta meta() {
-        return query("""
-                SELECT topic FROM jam_meta WHERE jam_id = ?
-                """)
-                .single(call().bind(id))
-                .map(row -> new JamMeta(row.getString("topic")))
-                .first()
-                .orElseThrow();
+        var meta = this.meta;
+        if (meta == null) {
+            meta = query("""
+                    SELECT topic FROM jam_meta WHERE jam_id = ?
+                    """)
+                    .single(call().bind(id))
+                    .map(row -> new JamMeta(row.getString("topic")))
+                    .first()
+                    .orElseThrow();
+            this.meta = meta;
+        }
+        return meta;
     }
 
     public List<Long> registrations() {
@@ -57,53 +68,69 @@ public class Jam {
     }
 
     public JamTimes times() {
-        return query("""
-                SELECT registration_start,
-                       registration_end,
-                       zone_id,
-                       jam_start,
-                       jam_end
-                FROM jam_time
-                WHERE jam_id = ?
-                """)
-                .single(call().bind(id))
-                .map(r -> {
-                    var zone = ZoneId.of(r.getString("zone_id"));
-                    return new JamTimes(zone,
-                            TimeFrame.fromTimestamp(r.getTimestamp("registration_start"),
-                                    r.getTimestamp("registration_end"), zone),
-                            TimeFrame.fromTimestamp(r.getTimestamp("jam_start"),
-                                    r.getTimestamp("jam_end"), zone)
-                    );
-                })
-                .first()
-                .orElseThrow();
+        var times = this.times;
+        if (times == null) {
+            times = query("""
+                    SELECT registration_start,
+                           registration_end,
+                           zone_id,
+                           jam_start,
+                           jam_end
+                    FROM jam_time
+                    WHERE jam_id = ?
+                    """)
+                    .single(call().bind(id))
+                    .map(r -> {
+                        var zone = ZoneId.of(r.getString("zone_id"));
+                        return new JamTimes(zone,
+                                TimeFrame.fromTimestamp(r.getTimestamp("registration_start"),
+                                        r.getTimestamp("registration_end"), zone),
+                                TimeFrame.fromTimestamp(r.getTimestamp("jam_start"),
+                                        r.getTimestamp("jam_end"), zone)
+                        );
+                    })
+                    .first()
+                    .orElseThrow();
+            this.times = times;
+        }
+        return times;
     }
 
     public JamState state() {
-        return query("""
-                SELECT active,
-                       voting,
-                       ended
-                FROM jam_state
-                WHERE jam_id = ?
-                """)
-                .single(call().bind(jamId()))
-                .map(r -> new JamState(this, r.getBoolean("active"), r.getBoolean("voting"), r.getBoolean("ended")))
-                .first()
-                .orElseThrow();
+        var state = this.state;
+        if (state == null) {
+            state = query("""
+                    SELECT active,
+                           voting,
+                           ended
+                    FROM jam_state
+                    WHERE jam_id = ?
+                    """)
+                    .single(call().bind(jamId()))
+                    .map(r -> new JamState(this, r.getBoolean("active"), r.getBoolean("voting"), r.getBoolean("ended")))
+                    .first()
+                    .orElseThrow();
+            this.state = state;
+        }
+        return state;
     }
 
     public List<TeamVote> votes() {
-        return query("""
-                SELECT
-                    rank, team_id, points, jam_id
-                FROM team_ranking r
-                WHERE r.jam_id = ?
-                """)
-                .single(call().bind(id))
-                .map(r -> new TeamVote(jamTeams.byId(r.getInt("team_id")).orElseThrow(), r.getInt("rank"), r.getInt("points")))
-                .all();
+        return leaderboard.top(Integer.MAX_VALUE);
+    }
+
+    public Leaderboard leaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * Drops the cached meta, times and state as well as the cached teams of the jam.
+     */
+    public void invalidate() {
+        meta = null;
+        times = null;
+        state = null;
+        jamTeams.invalidate();
     }
 
     public JamTeams teams() {
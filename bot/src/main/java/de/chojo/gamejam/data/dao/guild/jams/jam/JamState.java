@@ -39,6 +39,7 @@ public class JamState {
     public void active(boolean active) {
         if (set("active", active)) {
             this.active = active;
+            jam.jamGuild().jams().invalidate();
         }
     }
 
@@ -51,6 +52,7 @@ public class JamState {
     public void ended(boolean ended) {
         if (set("ended", ended)) {
             this.ended = ended;
+            jam.jamGuild().jams().invalidate();
         }
     }
 
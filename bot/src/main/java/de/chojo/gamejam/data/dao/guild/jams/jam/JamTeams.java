@@ -8,18 +8,30 @@ package de.chojo.gamejam.data.dao.guild.jams.jam;
 
 import de.chojo.gamejam.data.dao.guild.jams.Jam;
 import de.chojo.gamejam.data.dao.guild.jams.jam.teams.Team;
+import de.chojo.gamejam.data.dao.guild.jams.jam.teams.team.TeamMeta;
+import de.chojo.sadu.queries.api.call.Call;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.interactions.commands.Command;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static de.chojo.sadu.queries.api.call.Call.call;
 import static de.chojo.sadu.queries.api.query.Query.query;
 
 public class JamTeams {
+    private static final Duration INDEX_TTL = Duration.ofMinutes(10);
     private final Jam jam;
+    private volatile TeamIndex index;
+    // Incremented on every invalidation. An index loaded while the teams changed is not stored.
+    private long generation;
 
     public JamTeams(Jam jam) {
         this.jam = jam;
@@ -38,20 +50,25 @@ public class JamTeams {
                 """)
                 .single(call().bind(teamId).bind(name))
                 .insert();
+        invalidate();
         return new Team(jam, teamId);
     }
 
+    /**
+     * All teams of the jam. The teams are served from a cached index, which is loaded with two queries.
+     *
+     * @return teams of the jam
+     */
     public List<Team> teams() {
-        return query("""
-                SELECT id,
-                       team_name
-                FROM team t
-                   LEFT JOIN team_meta m ON t.id = m.team_id
-                WHERE jam_id = ?
-                """)
-                .single(call().bind(jam.jamId()))
-                .map(r -> new Team(jam, r.getInt("id")))
-                .all();
+        return new ArrayList<>(index().teams());
+    }
+
+    /**
+     * Drops the cached teams. Called on every write that changes membership, names or the set of teams.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        index = null;
     }
 
     public Optional<Team> byMember(Member member) {
@@ -59,37 +76,107 @@ public class JamTeams {
     }
 
     public Optional<Team> byMember(User member) {
-        return query("""
-                SELECT m.team_id
-                FROM team_member m
-                    LEFT JOIN team t ON t.id = m.team_id
-                    LEFT JOIN jam j ON j.id = t.jam_id
-                WHERE j.id = ?
-                    AND user_id = ?
-                """)
-                .single(call().bind(jam.jamId()).bind(member.getIdLong()))
-                .map(r -> r.getInt("team_id"))
-                .first()
-                .flatMap(this::byId);
+        return Optional.ofNullable(index().byMember().get(member.getIdLong()));
     }
 
     public Optional<Team> byName(String name) {
-        return query("""
-                SELECT id FROM team t LEFT JOIN team_meta m ON t.id = m.team_id
-                WHERE jam_id = ?
-                    AND LOWER(m.team_name) = LOWER(?)
-                """)
-                .single(call().bind(jam.jamId()).bind(name))
-                .map(r -> r.getInt("id"))
-                .first()
-                .flatMap(this::byId);
+        return index().teams().stream()
+                .filter(team -> team.meta().name().equalsIgnoreCase(name))
+                .findFirst();
     }
 
     public Optional<Team> byId(int id) {
-        return query("SELECT id, team_name FROM team t LEFT JOIN team_meta m ON t.id = m.team_id WHERE id = ?")
-                .single(call().bind(id))
-                .map(r -> new Team(jam, r.getInt("id")))
-                .first();
+        var team = index().byId().get(id);
+        if (team != null) return Optional.of(team);
+        return load("WHERE t.id = ?", call().bind(id)).stream().findFirst();
+    }
+
+    /**
+     * Drops the cached point sum of a team, if the team is part of the cached index.
+     *
+     * @param id id of the team
+     */
+    public void invalidatePoints(int id) {
+        var index = this.index;
+        if (index == null) return;
+        var team = index.byId().get(id);
+        if (team != null) team.invalidatePoints();
+    }
+
+    private TeamIndex index() {
+        var index = this.index;
+        if (index == null || index.expired()) {
+            var generation = generation();
+            index = TeamIndex.of(load());
+            store(index, generation);
+        }
+        return index;
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private synchronized void store(TeamIndex index, long generation) {
+        if (this.generation == generation) this.index = index;
+    }
+
+    private List<Team> load() {
+        var teams = load("WHERE t.jam_id = ?", call().bind(jam.jamId()));
+        Map<Integer, List<Long>> members = query("""
+                SELECT m.team_id,
+                       m.user_id
+                FROM team_member m
+                    JOIN team t ON t.id = m.team_id
+                WHERE t.jam_id = ?
+                """)
+                .single(call().bind(jam.jamId()))
+                .map(r -> new Membership(r.getInt("team_id"), r.getLong("user_id")))
+                .all()
+                .stream()
+                .collect(Collectors.groupingBy(Membership::teamId,
+                        Collectors.mapping(Membership::userId, Collectors.toList())));
+        for (var team : teams) {
+            team.hydrateMembers(members.getOrDefault(team.id(), List.of()));
+        }
+        return teams;
+    }
+
+    private List<Team> load(String filter, Call call) {
+        return query("""
+                SELECT t.id,
+                       m.team_name,
+                       m.leader_id,
+                       m.role_id,
+                       m.text_channel_id,
+                       m.voice_channel_id,
+                       m.project_description,
+                       m.project_url,
+                       m.token,
+                       coalesce(s.points, 0) AS points
+                FROM team t
+                    LEFT JOIN team_meta m ON t.id = m.team_id
+                    LEFT JOIN team_score s ON t.id = s.team_id
+                %s
+                """, filter)
+                .single(call)
+                .map(r -> {
+                    var team = new Team(jam, r.getInt("id"));
+                    // Teams without meta load it on access, which fails like before.
+                    if (r.getString("team_name") != null) {
+                        team.hydrate(new TeamMeta(team,
+                                r.getString("team_name"),
+                                r.getLong("leader_id"),
+                                r.getLong("role_id"),
+                                r.getLong("text_channel_id"),
+                                r.getLong("voice_channel_id"),
+                                r.getString("project_description"),
+                                r.getString("project_url"),
+                                r.getString("token")), r.getInt("points"));
+                    }
+                    return team;
+                })
+                .all();
     }
 
     public List<Command.Choice> completeTeam(String name) {
@@ -106,4 +193,25 @@ public class JamTeams {
                 .map(team -> new Command.Choice(team, team))
                 .toList();
     }
+
+    private record Membership(int teamId, long userId) {
+    }
+
+    private record TeamIndex(List<Team> teams, Map<Integer, Team> byId, Map<Long, Team> byMember, Instant loaded) {
+        static TeamIndex of(List<Team> teams) {
+            Map<Integer, Team> byId = new HashMap<>();
+            Map<Long, Team> byMember = new HashMap<>();
+            for (var team : teams) {
+                byId.put(team.id(), team);
+                for (var member : team.memberIds()) {
+                    byMember.put(member, team);
+                }
+            }
+            return new TeamIndex(List.copyOf(teams), byId, byMember, Instant.now());
+        }
+
+        boolean expired() {
+            return loaded.plus(INDEX_TTL).isBefore(Instant.now());
+        }
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.data.dao.guild.jams.jam;
+
+import de.chojo.gamejam.data.dao.guild.jams.Jam;
+import de.chojo.gamejam.data.dao.guild.jams.jam.teams.Team;
+import de.chojo.gamejam.data.dao.guild.jams.jam.teams.team.TeamVote;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import static de.chojo.sadu.queries.api.call.Call.call;
+import static de.chojo.sadu.queries.api.query.Query.query;
+
+/**
+ * The ranking of the teams of a jam, kept sorted in memory.
+ * <p>
+ * The scores are loaded once from the team_score table and updated per team afterwards.
+ * Ties are ordered by team id like in the team_ranking view.
+ */
+public class Leaderboard {
+    private static final Comparator<Score> ORDER = Comparator.comparingLong(Score::points).reversed()
+            .thenComparingInt(Score::teamId);
+    private final Jam jam;
+    private final NavigableSet<Score> ranking = new TreeSet<>(ORDER);
+    private final Map<Integer, Score> scores = new HashMap<>();
+    // Ranks of all teams. Built on the first rank lookup after a change.
+    private Map<Integer, Integer> ranks;
+    private boolean loaded;
+
+    public Leaderboard(Jam jam) {
+        this.jam = jam;
+    }
+
+    /**
+     * The best teams of the jam.
+     *
+     * @param limit max number of teams
+     * @return teams with their rank and points, best team first
+     */
+    public List<TeamVote> top(int limit) {
+        List<Score> snapshot = new ArrayList<>();
+        synchronized (this) {
+            load();
+            for (var score : ranking) {
+                if (snapshot.size() == limit) break;
+                snapshot.add(score);
+            }
+        }
+        // Teams are resolved outside the lock, as this may load them from the database.
+        List<TeamVote> top = new ArrayList<>();
+        var rank = 0;
+        for (var score : snapshot) {
+            var team = jam.teams().byId(score.teamId());
+            if (team.isEmpty()) continue;
+            rank++;
+            top.add(new TeamVote(team.get(), rank, (int) score.points()));
+        }
+        return top;
+    }
+
+    /**
+     * The rank of a team.
+     *
+     * @param team team
+     * @return rank and points of the team if it received votes
+     */
+    public synchronized Optional<TeamVote> rank(Team team) {
+        load();
+        var score = scores.get(team.id());
+        if (score == null) return Optional.empty();
+        if (ranks == null) {
+            ranks = new HashMap<>();
+            var rank = 0;
+            for (var entry : ranking) ranks.put(entry.teamId(), ++rank);
+        }
+        return Optional.of(new TeamVote(team, ranks.get(team.id()), (int) score.points()));
+    }
+
+    /**
+     * Updates the points of a team.
+     *
+     * @param teamId id of the team
+     * @param points current points of the team
+     */
+    private void update(int teamId, long points) {
+        if (!loaded) return;
+        remove(teamId);
+        var score = new Score(teamId, points);
+        scores.put(teamId, score);
+        ranking.add(score);
+    }
+
+    /**
+     * Loads the points of a team again.
+     * <p>
+     * The points are read while holding the lock, so concurrent refreshes can not apply an older score last.
+     *
+     * @param teamId id of the team
+     */
+    public synchronized void refresh(int teamId) {
+        query("SELECT points FROM team_score WHERE team_id = ?")
+                .single(call().bind(teamId))
+                .map(r -> r.getLong("points"))
+                .first()
+                .ifPresentOrElse(points -> update(teamId, points), () -> remove(teamId));
+    }
+
+    /**
+     * Removes a team from the leaderboard.
+     *
+     * @param teamId id of the team
+     */
+    public synchronized void remove(int teamId) {
+        var score = scores.remove(teamId);
+        if (score != null) ranking.remove(score);
+        ranks = null;
+    }
+
+    private void load() {
+        if (loaded) return;
+        query("SELECT team_id, points FROM team_score WHERE jam_id = ?")
+                .single(call().bind(jam.jamId()))
+                .map(r -> new Score(r.getInt("team_id"), r.getLong("points")))
+                .all()
+                .forEach(score -> {
+                    scores.put(score.teamId(), score);
+                    ranking.add(score);
+                });
+        loaded = true;
+    }
+
+    private record Score(int teamId, long points) {
+    }
+}
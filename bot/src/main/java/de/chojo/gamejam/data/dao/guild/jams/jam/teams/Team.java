@@ -10,6 +10,7 @@ import de.chojo.gamejam.data.dao.guild.jams.Jam;
 import de.chojo.gamejam.data.dao.guild.jams.jam.teams.team.TeamMember;
 import de.chojo.gamejam.data.dao.guild.jams.jam.teams.team.TeamMeta;
 import de.chojo.gamejam.data.dao.guild.jams.jam.teams.team.TeamVote;
+import de.chojo.gamejam.data.wrapper.votes.VoteResult;
 import de.chojo.jdautil.localization.LocalizationContext;
 import de.chojo.jdautil.localization.util.LocalizedEmbedBuilder;
 import de.chojo.jdautil.util.MentionUtil;
@@ -29,7 +30,9 @@ import static de.chojo.sadu.queries.api.query.Query.query;
 public class Team {
     private final Jam jam;
     private final int id;
-    private TeamMeta meta;
+    private volatile TeamMeta meta;
+    private volatile List<Long> memberIds;
+    private volatile Integer points;
 
     public Team(Jam jam, int id) {
         this.jam = jam;
@@ -61,22 +64,81 @@ public class Team {
     }
 
     public List<TeamMember> member() {
-        return query("SELECT user_id FROM team_member WHERE team_id = ?")
-                .single(call().bind(id()))
-                .map(r -> {
+        var guild = jam.jamGuild().guild();
+        return memberIds().stream()
+                .map(id -> {
                     try {
-                        var member = jam.jamGuild().guild().retrieveMemberById(r.getLong("user_id")).complete();
+                        var member = guild.getMemberById(id);
+                        if (member == null) member = guild.retrieveMemberById(id).complete();
                         return new TeamMember(this, member);
                     } catch (RuntimeException e) {
                         return null;
                     }
                 })
-                .all()
-                .stream()
                 .filter(Objects::nonNull)
                 .toList();
     }
 
+    /**
+     * The ids of all team members. Uses the ids loaded together with the team if present.
+     *
+     * @return list of user ids
+     */
+    public List<Long> memberIds() {
+        if (memberIds == null) {
+            memberIds = query("SELECT user_id FROM team_member WHERE team_id = ?")
+                    .single(call().bind(id()))
+                    .map(r -> r.getLong("user_id"))
+                    .all();
+        }
+        return memberIds;
+    }
+
+    /**
+     * The sum of all points the team received. Uses the sum loaded together with the team if present.
+     *
+     * @return points of the team
+     */
+    public int points() {
+        var points = this.points;
+        if (points == null) {
+            points = query("SELECT coalesce(sum(points), 0) AS points FROM team_score WHERE team_id = ?")
+                    .single(call().bind(id()))
+                    .map(r -> r.getInt("points"))
+                    .first()
+                    .orElse(0);
+            this.points = points;
+        }
+        return points;
+    }
+
+    /**
+     * Drops the cached point sum. It is loaded again on the next access.
+     */
+    public void invalidatePoints() {
+        points = null;
+    }
+
+    /**
+     * Sets the data loaded together with the team, which saves the lazy queries later on.
+     *
+     * @param meta   meta of the team
+     * @param points sum of points the team received
+     */
+    public void hydrate(TeamMeta meta, int points) {
+        this.meta = meta;
+        this.points = points;
+    }
+
+    /**
+     * Sets the member ids loaded together with the team.
+     *
+     * @param memberIds ids of the team members
+     */
+    public void hydrateMembers(List<Long> memberIds) {
+        this.memberIds = memberIds;
+    }
+
     public int id() {
         return id;
     }
@@ -104,39 +166,49 @@ public class Team {
     }
 
     public List<TeamVote> votes() {
-        return query("""
-                SELECT
-                    rank, team_id, points, jam_id
-                FROM team_ranking
-                WHERE team_id = ?
-                """)
-                .single(call().bind(id()))
-                .map(r -> new TeamVote(this, r.getInt("rank"), r.getInt("points")))
-                .all();
-    }
-
-    public boolean vote(Member member, int points) {
-        return query("""
-                INSERT INTO vote(team_id, voter_id, points) VALUES (?,?,?)
-                ON CONFLICT (team_id, voter_id)
-                    DO UPDATE SET points = excluded.points;
-                """)
+        return jam.leaderboard().rank(this).map(List::of).orElse(List.of());
+    }
+
+    /**
+     * Casts a vote for this team.
+     * <p>
+     * The voting state, the registration and team of the voter and the points budget are checked together with the
+     * vote in a single statement, so concurrent votes of the same voter can not exceed the budget.
+     *
+     * @param member voter
+     * @param points points to give
+     * @return result of the vote
+     */
+    public VoteResult vote(Member member, int points) {
+        var result = query("SELECT status, remaining, team_points FROM cast_vote(?, ?, ?)")
                 .single(call().bind(id()).bind(member.getIdLong()).bind(points))
-                .insert()
-                .changed();
+                .map(r -> new VoteResult(VoteResult.Status.valueOf(r.getString("status")),
+                        r.getInt("remaining"), r.getLong("team_points")))
+                .first()
+                .orElseThrow();
+        if (result.voted()) {
+            // Concurrent votes may return their totals out of order. The current points are read again instead.
+            invalidatePoints();
+            jam.leaderboard().refresh(id());
+        }
+        return result;
     }
 
-
     public Jam jam() {
         return jam;
     }
 
     public boolean disband() {
         delete();
-        return query("DELETE FROM team WHERE id = ?")
+        var changed = query("DELETE FROM team WHERE id = ?")
                 .single(call().bind(id()))
                 .insert()
                 .changed();
+        if (changed) {
+            jam.teams().invalidate();
+            jam.leaderboard().remove(id());
+        }
+        return changed;
     }
 
     public TeamMeta meta() {
@@ -179,12 +251,4 @@ public class Team {
     public String toString() {
         return "%s (%s)".formatted(meta().name(), id);
     }
-
-    public Integer votes(Member member) {
-        return query("SELECT sum(points) as points FROM vote WHERE team_id = ? AND voter_id = ?")
-                .single(call().bind(id()).bind(member.getIdLong()))
-                .map(r -> r.getInt("points"))
-                .first()
-                .orElse(0);
-    }
 }
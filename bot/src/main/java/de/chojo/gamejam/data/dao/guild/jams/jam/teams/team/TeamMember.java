@@ -34,9 +34,11 @@ public final class TeamMember {
         var roleById = team.meta().role();
 
         roleById.ifPresent(role -> guild.removeRoleFromMember(member, role).queue());
-        return query("DELETE FROM team_member WHERE team_id = ? AND user_id = ?")
+        var changed = query("DELETE FROM team_member WHERE team_id = ? AND user_id = ?")
                 .single(call().bind(team.id()).bind(member.getIdLong()))
                 .insert()
                 .changed();
+        if (changed) team.jam().teams().invalidate();
+        return changed;
     }
 }
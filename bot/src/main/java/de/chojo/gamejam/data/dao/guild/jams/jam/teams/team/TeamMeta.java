@@ -131,6 +131,7 @@ public class TeamMeta {
                 .changed();
         if (changed) {
             this.name = name;
+            team.jam().teams().invalidate();
             role().ifPresent(role -> role.getManager().setName(name()).queue());
             textChannel().ifPresent(channel -> channel.getManager().setName(name().replace(" ", "-")).queue());
             voiceChannel().ifPresent(channel -> channel.getManager().setName(name()).queue());
@@ -146,7 +147,7 @@ public class TeamMeta {
     }
 
     private boolean set(String column, Function<Call, Call> value) {
-        return query("""
+        var changed = query("""
                 INSERT INTO team_meta(team_id, team_name, %s) VALUES(?,'',?)
                 ON CONFLICT(team_id)
                     DO UPDATE
@@ -155,5 +156,7 @@ public class TeamMeta {
                 .single(value.apply(call().bind(team.id())))
                 .update()
                 .changed();
+        if (changed) team.jam().teams().invalidate();
+        return changed;
     }
 }
@@ -43,21 +43,6 @@ public class JamUser {
                 .all();
     }
 
-    public int votesGiven() {
-        return query("""
-                SELECT
-                    sum(points) as points
-                FROM vote v
-                LEFT JOIN team t ON t.id = v.team_id
-                WHERE t.jam_id = ?
-                    AND voter_id = ?
-                """)
-                .single(call().bind(jam.jamId()).bind(member.getIdLong()))
-                .map(r -> r.getInt("points"))
-                .first()
-                .orElse(0);
-    }
-
     public Optional<Team> team() {
         return jam.teams().byMember(member);
     }
@@ -68,9 +53,11 @@ public class JamUser {
 
         roleById.ifPresent(role -> guild.addRoleToMember(member, role).queue());
 
-        return query("INSERT INTO team_member(team_id, user_id) VALUES(?,?)")
+        var changed = query("INSERT INTO team_member(team_id, user_id) VALUES(?,?)")
                 .single(call().bind(team.id()).bind(member.getIdLong()))
                 .insert()
                 .changed();
+        if (changed) jam.teams().invalidate();
+        return changed;
     }
 }
@@ -0,0 +1,29 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.data.wrapper.votes;
+
+/**
+ * The result of casting a vote.
+ *
+ * @param status     outcome of the vote
+ * @param remaining  points the voter has left after the vote
+ * @param teamPoints points of the team after the vote. Only set if the vote was cast.
+ */
+public record VoteResult(Status status, int remaining, long teamPoints) {
+    public boolean voted() {
+        return status == Status.VOTED;
+    }
+
+    public enum Status {
+        VOTED,
+        UNKNOWN_TEAM,
+        NOT_VOTING,
+        NOT_REGISTERED,
+        OWN_TEAM,
+        BUDGET_EXCEEDED
+    }
+}
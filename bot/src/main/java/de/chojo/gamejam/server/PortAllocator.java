@@ -0,0 +1,134 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free allocator for a range of ports.
+ * <p>
+ * Every port is represented by a bit. A port is claimed by setting its bit via compare and set.
+ */
+public class PortAllocator {
+    private final int minPort;
+    private final int size;
+    private final AtomicLongArray used;
+    private final AtomicInteger hint = new AtomicInteger();
+
+    /**
+     * Creates a new allocator.
+     *
+     * @param minPort first port of the range, inclusive
+     * @param maxPort last port of the range, inclusive
+     */
+    public PortAllocator(int minPort, int maxPort) {
+        if (maxPort < minPort) throw new IllegalArgumentException("maxPort is smaller than minPort");
+        this.minPort = minPort;
+        size = maxPort - minPort + 1;
+        used = new AtomicLongArray((size + 63) / 64);
+    }
+
+    /**
+     * Claims the next free port.
+     *
+     * @return the claimed port
+     * @throws IllegalStateException if all ports are in use
+     */
+    public int claim() {
+        var words = used.length();
+        var start = hint.get();
+        for (var i = 0; i < words; i++) {
+            var index = (start + i) % words;
+            var word = used.get(index);
+            while (true) {
+                var free = ~word & validBits(index);
+                if (free == 0) break;
+                var bit = Long.numberOfTrailingZeros(free);
+                var witness = used.compareAndExchange(index, word, word | (1L << bit));
+                if (witness == word) {
+                    hint.set(index);
+                    return minPort + index * 64 + bit;
+                }
+                word = witness;
+            }
+        }
+        throw new IllegalStateException("Ports exhausted");
+    }
+
+    /**
+     * Claims a specific port.
+     *
+     * @param port port to claim
+     * @return true if the port was free and is now claimed. False if it was already in use or is out of range.
+     */
+    public boolean claim(int port) {
+        if (!inRange(port)) return false;
+        var offset = port - minPort;
+        var mask = 1L << (offset % 64);
+        return (used.getAndAccumulate(offset / 64, mask, (word, bit) -> word | bit) & mask) == 0;
+    }
+
+    /**
+     * Releases a claimed port.
+     *
+     * @param port port to release
+     * @return true if the port was claimed before
+     */
+    public boolean release(int port) {
+        if (!inRange(port)) return false;
+        var offset = port - minPort;
+        var index = offset / 64;
+        var mask = 1L << (offset % 64);
+        var released = (used.getAndAccumulate(index, mask, (word, bit) -> word & ~bit) & mask) != 0;
+        if (released) hint.set(index);
+        return released;
+    }
+
+    /**
+     * Checks whether a port is claimed.
+     *
+     * @param port port
+     * @return true if the port is claimed
+     */
+    public boolean claimed(int port) {
+        if (!inRange(port)) return false;
+        var offset = port - minPort;
+        return (used.get(offset / 64) & (1L << (offset % 64))) != 0;
+    }
+
+    /**
+     * Amount of free ports.
+     *
+     * @return free ports
+     */
+    public int free() {
+        var claimed = 0;
+        for (var i = 0; i < used.length(); i++) {
+            claimed += Long.bitCount(used.get(i));
+        }
+        return size - claimed;
+    }
+
+    /**
+     * Releases all ports.
+     */
+    public void reset() {
+        for (var i = 0; i < used.length(); i++) {
+            used.set(i, 0);
+        }
+    }
+
+    private boolean inRange(int port) {
+        return port >= minPort && port - minPort < size;
+    }
+
+    private long validBits(int index) {
+        var bits = size - index * 64;
+        return bits >= 64 ? -1L : (1L << bits) - 1;
+    }
+}
@@ -10,8 +10,22 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import de.chojo.gamejam.configuration.Configuration;
 import de.chojo.gamejam.data.access.Teams;
 import de.chojo.gamejam.data.dao.guild.jams.jam.teams.Team;
+import de.chojo.gamejam.server.bulk.BulkAction;
+import de.chojo.gamejam.server.bulk.BulkOrchestrator;
+import de.chojo.gamejam.server.bulk.BulkRun;
+import de.chojo.gamejam.server.catalog.PluginCatalog;
+import de.chojo.gamejam.server.files.DirectoryIndex;
+import de.chojo.gamejam.server.files.DirectoryPurger;
+import de.chojo.gamejam.server.files.DirectoryWatcher;
+import de.chojo.gamejam.server.jvm.CdsArchives;
+import de.chojo.gamejam.server.logs.ConsoleStreams;
+import de.chojo.gamejam.server.logs.LogService;
+import de.chojo.gamejam.server.resources.AdmissionController;
+import de.chojo.gamejam.server.template.TemplateFile;
+import de.chojo.gamejam.server.template.TemplateProvisioner;
 import de.chojo.gamejam.util.Mapper;
 import de.chojo.pluginjam.payload.Registration;
+import de.chojo.pluginjam.payload.RequestsPayload;
 import org.slf4j.Logger;
 
 import java.io.IOException;
@@ -19,66 +33,149 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.IntStream;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
 public class ServerService implements Runnable {
     private static final Logger log = getLogger(ServerService.class);
-    private final Map<Team, TeamServer> server = new HashMap<>();
+    private static final int POLL_INTERVAL = 10;
+    private final Map<Integer, TeamServer> server = new ConcurrentHashMap<>();
     private Teams teams;
     private final Configuration configuration;
-    private final Stack<Integer> freePorts = new Stack<>();
+    private final PortAllocator ports;
+    private final Semaphore pollPermits;
+    private final TemplateProvisioner provisioner;
+    private final DirectoryPurger purger;
+    private final DirectoryWatcher watcher = new DirectoryWatcher();
+    private final Map<Path, DirectoryIndex> pluginIndices = new ConcurrentHashMap<>();
+    private final PluginCatalog pluginCatalog;
+    private final LogService logs;
+    private final ConsoleStreams consoleStreams;
+    private final BulkOrchestrator orchestrator;
+    private final AdmissionController admission;
+    private final CdsArchives cdsArchives;
+    private final int pollInterval;
+    private volatile Duration lastPollDuration = Duration.ZERO;
 
     public static ServerService create(ScheduledExecutorService executorService, Configuration configuration) {
         var serverService = new ServerService(configuration);
-        executorService.scheduleAtFixedRate(serverService, 10, 10, TimeUnit.SECONDS);
+        executorService.scheduleAtFixedRate(serverService, serverService.pollInterval, serverService.pollInterval, TimeUnit.SECONDS);
         return serverService;
     }
 
     private ServerService(Configuration configuration) {
         this.configuration = configuration;
-        IntStream.rangeClosed(configuration.serverManagement().minPort(), configuration.serverManagement().maxPort())
-                .forEach(freePorts::add);
+        provisioner = new TemplateProvisioner(configuration);
+        purger = new DirectoryPurger(Path.of(configuration.serverManagement().serverDir(), ".trash"),
+                configuration.serverManagement().purgeParallelism());
+        purger.cleanup();
+        orchestrator = new BulkOrchestrator(this, configuration);
+        admission = new AdmissionController(configuration);
+        pluginCatalog = new PluginCatalog(configuration, watcher);
+        logs = new LogService(configuration);
+        consoleStreams = new ConsoleStreams(logs, configuration);
+        cdsArchives = new CdsArchives(Path.of(configuration.serverManagement().serverDir(), ".cds"));
+        var management = configuration.serverManagement();
+        // Pushed requests arrive immediately. Polling is only required to catch lost pushes.
+        pollInterval = management.pushRequests() ? Math.max(POLL_INTERVAL, management.fallbackPollInterval()) : POLL_INTERVAL;
+        pollPermits = new Semaphore(Math.max(1, configuration.serverManagement().pollConcurrency()));
+        ports = new PortAllocator(management.minPort(), management.maxPort());
     }
 
     public void shutdown() {
-        server.forEach((team, teamServer) -> {
-            teamServer.stop();
-        });
+        var stops = List.copyOf(server.values()).stream()
+                .map(TeamServer::stop)
+                .toArray(CompletableFuture[]::new);
+        try {
+            // Supervised servers lose their console once the bot exits, so we wait for them.
+            CompletableFuture.allOf(stops).get(configuration.serverManagement().stopTimeout() + 5L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Not all servers stopped in time", e);
+        }
+        purger.shutdown();
+        watcher.shutdown();
+        consoleStreams.shutdown();
+        logs.shutdown();
     }
 
     @Override
     public void run() {
-        for (var value : server.values()) {
-            if (!value.running()) continue;
+        var start = System.nanoTime();
+        var timeout = Duration.ofMillis(configuration.serverManagement().pollTimeout());
+        var servers = List.copyOf(server.values()).stream().filter(TeamServer::running).toList();
+        var polls = new ArrayList<CompletableFuture<Void>>(servers.size());
+        for (var value : servers) {
             try {
-                value.serverRequests()
-                        .ifPresent(server -> {
-                            if (server.restart()) {
-                                log.info("Server of team {} requested restart", value.team());
-                                value.restart();
-                            }
-                        });
-            } catch (RuntimeException e) {
-                log.error("Could not reach server {}", value);
+                pollPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while polling server requests");
+                break;
             }
+            polls.add(poll(value, timeout).whenComplete((res, err) -> pollPermits.release()));
+        }
+        CompletableFuture.allOf(polls.toArray(CompletableFuture[]::new)).join();
+
+        lastPollDuration = Duration.ofNanos(System.nanoTime() - start);
+        if (lastPollDuration.toSeconds() >= pollInterval) {
+            log.warn("Polling {} servers took {} ms, which exceeds the poll interval of {} seconds",
+                    servers.size(), lastPollDuration.toMillis(), pollInterval);
+        } else {
+            log.debug("Polled {} servers in {} ms", servers.size(), lastPollDuration.toMillis());
         }
     }
 
+    private CompletableFuture<Void> poll(TeamServer value, Duration timeout) {
+        return value.serverRequestsAsync(timeout)
+                .thenAccept(requests -> handleRequests(value, requests))
+                .exceptionally(err -> {
+                    log.error("Could not reach server {}", value);
+                    return null;
+                });
+    }
+
+    /**
+     * Handles the requests of a server. Called for polled and pushed requests.
+     *
+     * @param value    server which sent the requests
+     * @param requests requests of the server
+     */
+    public void handleRequests(TeamServer value, RequestsPayload requests) {
+        if (requests.restart() && value.running()) {
+            log.info("Server of team {} requested restart", value.team());
+            value.restart();
+        }
+    }
+
+    /**
+     * Duration of the last request poll over all running servers.
+     *
+     * @return duration of the last poll cycle
+     */
+    public Duration lastPollDuration() {
+        return lastPollDuration;
+    }
+
     public CompletableFuture<Boolean> syncVelocity() {
         return CompletableFuture.supplyAsync(() -> {
             log.info("Syncing server with velocity instance.");
-            freePorts.clear();
-            IntStream.rangeClosed(configuration.serverManagement().minPort(), configuration.serverManagement().maxPort())
-                    .forEach(freePorts::add);
             var velocityPort = configuration.serverManagement().velocityPort();
             var velocityHost = configuration.serverManagement().getVelocityHost();
             var httpClient = HttpClient.newHttpClient();
@@ -115,6 +212,8 @@ public class ServerService implements Runnable {
             }
 
             server.clear();
+            ports.reset();
+            admission.reset();
             for (var registration : registrations) {
                 var optTeam = teams.byId(registration.id());
                 if (optTeam.isEmpty()) {
@@ -125,32 +224,145 @@ public class ServerService implements Runnable {
                 log.info("Registered server for team {} with id {}", team.meta().name(), team.id());
                 var teamServer = new TeamServer(this, team, configuration, registration.port(), registration.apiPort());
                 teamServer.running(true);
-                server.put(team, teamServer);
-                freePorts.removeElement(registration.apiPort());
-                freePorts.removeElement(registration.port());
+                server.put(team.id(), teamServer);
+                admission.reserve(team.id(), teamServer.committedMemory());
+                ports.claim(registration.apiPort());
+                ports.claim(registration.port());
             }
             return true;
         });
     }
 
-    public TeamServer get(Team team) {
-        return server.computeIfAbsent(team, key -> new TeamServer(this, key, configuration, nextPort(), nextPort()));
+    /**
+     * Get the server of a team if it is already known.
+     *
+     * @param team team
+     * @return the server or empty if no server was created for this team yet
+     */
+    public Optional<TeamServer> byTeam(Team team) {
+        return Optional.ofNullable(server.get(team.id()));
     }
 
-    private int nextPort() {
-        if (!freePorts.isEmpty()) {
-            return freePorts.pop();
-        }
-        throw new RuntimeException("Ports exhausted");
+    /**
+     * Refreshes the template files of the servers of the teams.
+     * <p>
+     * The template is scanned once and the changes are applied to all servers in parallel.
+     *
+     * @param teams teams to refresh
+     * @return future which completes with the amount of refreshed servers
+     */
+    public CompletableFuture<Long> refreshAll(Collection<Team> teams) {
+        var servers = teams.stream().map(this::get).toList();
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, TemplateFile> files;
+            try {
+                files = provisioner.scan();
+            } catch (IOException e) {
+                log.error("Could not scan template", e);
+                return 0L;
+            }
+            return servers.parallelStream()
+                    .filter(server -> server.refresh(files))
+                    .count();
+        });
+    }
+
+    /**
+     * Executes an action on the servers of the teams with limited parallelism.
+     *
+     * @param action   action to execute
+     * @param teams    teams
+     * @param progress listener called whenever a server was processed
+     * @return the run
+     */
+    public BulkRun bulk(BulkAction action, Collection<Team> teams, Consumer<BulkRun> progress) {
+        return orchestrator.run(action, teams.stream().map(this::get).toList(), progress);
+    }
+
+    /**
+     * The admission controller deciding whether a server may be started.
+     *
+     * @return admission controller
+     */
+    public AdmissionController admission() {
+        return admission;
+    }
+
+    /**
+     * The index of the plugin directory of the server, which is kept in sync with the file system.
+     *
+     * @param server server
+     * @return directory index
+     */
+    public DirectoryIndex pluginIndex(TeamServer server) {
+        return pluginIndices.computeIfAbsent(server.plugins(), path -> new DirectoryIndex(path, watcher));
+    }
+
+    /**
+     * The catalog of plugins which can be installed on team servers.
+     *
+     * @return plugin catalog
+     */
+    public PluginCatalog pluginCatalog() {
+        return pluginCatalog;
+    }
+
+    /**
+     * The service providing the latest lines of the server logs.
+     *
+     * @return log service
+     */
+    public LogService logs() {
+        return logs;
+    }
+
+    /**
+     * The streams of server consoles into the team channels.
+     *
+     * @return console streams
+     */
+    public ConsoleStreams consoleStreams() {
+        return consoleStreams;
+    }
+
+    TemplateProvisioner provisioner() {
+        return provisioner;
+    }
+
+    CdsArchives cdsArchives() {
+        return cdsArchives;
+    }
+
+    DirectoryPurger purger() {
+        return purger;
+    }
+
+    public TeamServer get(Team team) {
+        return server.computeIfAbsent(team.id(), key -> {
+            var port = ports.claim();
+            int apiPort;
+            try {
+                apiPort = ports.claim();
+            } catch (IllegalStateException e) {
+                ports.release(port);
+                throw e;
+            }
+            return new TeamServer(this, team, configuration, port, apiPort);
+        });
     }
 
     void stopped(TeamServer server, boolean restart) {
-        this.server.remove(server.team());
-        freePorts.push(server.port());
-        freePorts.push(server.apiPort());
-        if (restart) {
-            get(server.team()).start();
+        // The stream sends its remaining lines. A restarted server streams again if enabled.
+        consoleStreams.disable(server.team());
+        // Only release the ports if the server was not replaced in the meantime.
+        var removed = this.server.remove(server.team().id(), server);
+        if (removed) {
+            ports.release(server.port());
+            ports.release(server.apiPort());
         }
+        // A restart takes over the memory of the stopped server, so queued servers can not take it in between.
+        if (restart && get(server.team()).start()) return;
+        if (removed) admission.release(server.team().id());
     }
 
     public void inject(Teams teams) {
@@ -9,6 +9,17 @@ package de.chojo.gamejam.server;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import de.chojo.gamejam.configuration.Configuration;
 import de.chojo.gamejam.data.dao.guild.jams.jam.teams.Team;
+import de.chojo.gamejam.server.files.PluginInstall;
+import de.chojo.gamejam.server.files.PluginInstaller;
+import de.chojo.gamejam.server.jvm.CdsArchives;
+import de.chojo.gamejam.server.jvm.CdsLaunch;
+import de.chojo.gamejam.server.jvm.JvmArguments;
+import de.chojo.gamejam.server.process.NativeProcess;
+import de.chojo.gamejam.server.process.ProcessLogs;
+import de.chojo.gamejam.server.process.ScreenProcess;
+import de.chojo.gamejam.server.process.ServerProcess;
+import de.chojo.gamejam.server.template.TemplateFile;
+import de.chojo.gamejam.server.world.WorldArchive;
 import de.chojo.gamejam.util.Mapper;
 import de.chojo.jdautil.localization.util.LocalizedEmbedBuilder;
 import de.chojo.jdautil.util.Futures;
@@ -16,60 +27,42 @@ import de.chojo.jdautil.wrapper.EventContext;
 import de.chojo.pluginjam.payload.RequestsPayload;
 import de.chojo.pluginjam.payload.StatsPayload;
 import net.dv8tion.jda.api.entities.MessageEmbed;
-import net.lingala.zip4j.ZipFile;
 import org.slf4j.Logger;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.file.Files;
-import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
 public class TeamServer {
     private static final HttpClient http = HttpClient.newHttpClient();
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH:mm:ss.SSSS");
     private static final Logger log = getLogger(TeamServer.class);
+    private static final String TOKEN_FILE = ".pluginjam-token";
+    private static final Duration PLUGIN_RELOAD_TIMEOUT = Duration.ofSeconds(40);
     private final ServerService serverService;
     private final Team team;
     private final Configuration configuration;
     private final int port;
     private final int apiPort;
-    private static final List<String> AIKAR = List.of(
-            "-XX:+ParallelRefProcEnabled",
-            "-XX:MaxGCPauseMillis=200",
-            "-XX:+UnlockExperimentalVMOptions",
-            "-XX:+DisableExplicitGC",
-            "-XX:+AlwaysPreTouch",
-            "-XX:G1NewSizePercent=30",
-            "-XX:G1MaxNewSizePercent=40", "-XX:G1HeapRegionSize=8M",
-            "-XX:G1ReservePercent=20",
-            "-XX:G1HeapWastePercent=5",
-            "-XX:G1MixedGCCountTarget=4",
-            "-XX:InitiatingHeapOccupancyPercent=15",
-            "-XX:G1MixedGCLiveThresholdPercent=90",
-            "-XX:G1RSetUpdatingPauseTimePercent=5",
-            "-XX:SurvivorRatio=32",
-            "-XX:+PerfDisableSharedMem",
-            "-XX:MaxTenuringThreshold=1",
-            "-Dusing.aikars.flags=https://mcflags.emc.gs",
-            "-Daikars.new.flags=true"
-    );
-    private boolean running;
+    private final ProcessLogs processLogs;
+    private volatile boolean running;
+    private volatile ServerProcess process;
 
 
     public TeamServer(ServerService serverService, Team team, Configuration configuration, int port, int apiPort) {
@@ -78,6 +71,7 @@ public class TeamServer {
         this.configuration = configuration;
         this.port = port;
         this.apiPort = apiPort;
+        processLogs = new ProcessLogs(serverDir().resolve("processlog"), configuration);
     }
 
     public boolean running() {
@@ -97,21 +91,37 @@ public class TeamServer {
     public boolean setup() throws IOException {
         if (exists()) return false;
         log.info("Setting up server of team {}", team);
-        writeTemplate();
+        writeTemplate(serverService.provisioner().scan());
         return true;
     }
 
     /**
      * Refresh the files of the server present in the template. This is basically a new setup without purging the data beforehand.
      * <p>
-     * Files with the same name will be overridden
+     * Files with the same name will be overridden if they changed in the template since the last refresh.
      *
      * @return true when the refresh was successful
      */
     public boolean refresh() {
+        try {
+            return refresh(serverService.provisioner().scan());
+        } catch (IOException e) {
+            log.error("Could not scan template", e);
+            return false;
+        }
+    }
+
+    /**
+     * Refresh the files of the server with an already scanned template.
+     *
+     * @param files template files
+     * @return true when the refresh was successful
+     * @see #refresh()
+     */
+    public boolean refresh(Map<String, TemplateFile> files) {
         log.info("Refreshing template files of server {}", team);
         try {
-            writeTemplate();
+            writeTemplate(files);
         } catch (IOException e) {
             log.error("Could not refresh template", e);
             return false;
@@ -119,68 +129,64 @@ public class TeamServer {
         return true;
     }
 
-    private void writeTemplate() throws IOException {
-        var serverDir = serverDir();
-        Files.createDirectories(serverDir);
-
-        var sourceDir = Path.of(configuration.serverTemplate().templateDir());
-        var symlinks = configuration.serverTemplate().symLinks()
-                .stream()
-                .map(sourceDir::resolve)
-                .collect(Collectors.toSet());
-        try (var files = Files.walk(sourceDir)) {
-            for (var sourceTarget : files.toList()) {
-                // skip root dir
-                if (sourceTarget.getNameCount() == 1) continue;
-                var filePath = sourceTarget.subpath(1, sourceTarget.getNameCount());
-                var serverTarget = serverDir.resolve(filePath);
-                if (symlinks.contains(sourceTarget)) {
-                    // Not really required since the current and new symlink are probably equal, but the creation will fail otherwise.
-                    if (serverTarget.toFile().isFile() && serverTarget.toFile().delete()) {
-                        log.debug("Deleted old version of file {}", serverTarget);
-                    }
-                    Files.createSymbolicLink(serverTarget, sourceTarget.toAbsolutePath());
-                } else {
-                    // ignore already existing directories
-                    if (sourceTarget.toFile().isDirectory() && serverTarget.toFile().exists()) {
-                        continue;
-                    }
-                    Files.copy(sourceTarget, serverTarget, StandardCopyOption.REPLACE_EXISTING);
-                }
-            }
-        }
+    private void writeTemplate(Map<String, TemplateFile> files) throws IOException {
+        var report = serverService.provisioner().provision(serverDir(), files);
+        log.info("Provisioned template for server of team {}: {}", team, report);
     }
 
     /**
      * Delete all the server data.
+     * <p>
+     * The server directory is removed immediately. The data is deleted in the background.
      *
      * @return true when server was deleted.
-     * @throws IOException
+     * @throws IOException if the server directory could not be moved to the trash
      */
     public boolean purge() throws IOException {
         if (!exists()) return false;
         if(running()) stop().join();
+        serverService.consoleStreams().disable(team);
         log.info("Purging server of team {}", team);
-        return deleteDirectory(serverDir());
+        serverService.purger().purge(serverDir());
+        return true;
     }
 
+    /**
+     * Starts the server if the memory budget allows it.
+     *
+     * @return true if the server was started
+     */
     public boolean start() {
         if (!exists() || running()) return false;
         var server = configuration.serverManagement();
+        var admission = serverService.admission();
+        if (!admission.tryAdmit(team.id(), committedMemory())) {
+            log.warn("Memory budget exceeded. Server of team {} was not started. {}", team, admission.budget());
+            return false;
+        }
+        // A restart keeps the memory of the previous instance, which may have used another profile.
+        admission.reserve(team.id(), committedMemory());
+        var profile = server.profile(team.id());
+        var jvmArguments = new ArrayList<>(JvmArguments.of(profile, profile.memory(server.memory())));
+        jvmArguments.addAll(server.parameter());
+        // Class data sharing launches the resolved executable, as the archive is bound to it.
+        var java = profile.cds() ? CdsArchives.java() : Optional.<Path>empty();
+        var cds = java.map(bin -> serverService.cdsArchives().prepare(server.profileName(team.id()), bin, templateServerJar(), jvmArguments))
+                      .orElse(CdsLaunch.NONE);
         var command = new ArrayList<String>();
-        command.add("screen");
-        command.add("-dmS");
-        command.add(screenName());
-        command.add("java");
-        command.add("-Xmx%dM".formatted(server.memory()));
-        command.add("-Xms%dM".formatted(server.memory()));
-        command.addAll(AIKAR);
-        command.addAll(server.parameter());
+        command.add(java.map(Path::toString).orElse("java"));
+        command.addAll(jvmArguments);
+        command.addAll(cds.arguments());
         command.add("-Dpluginjam.port=" + server.velocityPort());
         command.add("-Dpluginjam.host=" + server.getVelocityHost());
         command.add("-Dpluginjam.team.id=" + team.id());
         command.add("-Dpluginjam.team.name=" + teamName());
         command.add("-Djavalin.port=" + apiPort);
+        var tokenFile = writeToken(server.pushRequests() ? team.meta().token() : null);
+        if (tokenFile.isPresent()) {
+            command.add("-Dpluginjam.bot.url=" + configuration.api().url());
+            command.add("-Dpluginjam.team.tokenfile=" + tokenFile.get().toAbsolutePath());
+        }
         command.add("-Dcom.mojang.eula.agree=true");
         command.add("--enable-preview");
         command.add("-jar");
@@ -191,20 +197,65 @@ public class TeamServer {
         command.add("--port");
         command.add(String.valueOf(port));
         log.info("Starting server server of team {}", team);
+        var serverProcess = createProcess();
         try {
-            new ProcessBuilder()
-                    .directory(serverDir().toFile())
-                    .command(command)
-                    .redirectOutput(ProcessBuilder.Redirect.to(processLogFile("start")))
-                    .start();
-            running = true;
+            serverProcess.start(serverDir(), command);
         } catch (IOException e) {
             log.error("Could not start server", e);
+            admission.release(team.id());
+            cds.exited();
             return false;
         }
+        process = serverProcess;
+        running = true;
+        if (server.streamConsole()) {
+            serverService.consoleStreams().enable(team, logFile());
+        }
+        serverProcess.exited().whenComplete((exit, err) -> cds.exited());
+        serverProcess.exited().thenRun(() -> {
+            // A server which is still marked as running was not stopped by us.
+            if (process == serverProcess && running) {
+                log.warn("Server of team {} exited unexpectedly", team);
+                running = false;
+                serverService.stopped(this, false);
+            }
+        });
         return true;
     }
 
+    /**
+     * Starts the server once the memory budget allows it.
+     * <p>
+     * Depending on the admission mode the start is queued until enough memory is released or rejected right away.
+     *
+     * @return future which completes with true once the server was started
+     */
+    public CompletableFuture<Boolean> requestStart() {
+        if (!exists() || running()) return CompletableFuture.completedFuture(false);
+        return serverService.admission().admit(team.id(), committedMemory())
+                .thenApply(admitted -> {
+                    if (!admitted) return false;
+                    if (start()) return true;
+                    // Free the budget again if the server could not be started.
+                    if (!running()) serverService.admission().release(team.id());
+                    return false;
+                });
+    }
+
+    /**
+     * The memory committed to this server including the memory outside the heap.
+     *
+     * @return memory in MB
+     */
+    public int committedMemory() {
+        var server = configuration.serverManagement();
+        return server.profile(team.id()).memory(server.memory()) + server.memoryOverhead();
+    }
+
+    private Path templateServerJar() {
+        return Path.of(configuration.serverTemplate().templateDir(), "server.jar");
+    }
+
     public CompletableFuture<Void> stop() {
         return stop(false);
     }
@@ -218,68 +269,89 @@ public class TeamServer {
             return CompletableFuture.completedFuture(null);
         }
         running = false;
-        try {
-            CompletableFuture<Void> future = new ProcessBuilder()
-                    .directory(new File("").toPath().toAbsolutePath().toFile())
-                    .command("./wait.sh", screenName())
-                    .redirectOutput(ProcessBuilder.Redirect.to(processLogFile("stop")))
-                    .start()
-                    .onExit()
-                    .whenComplete(Futures.whenComplete(
-                            exit -> {
-                                log.info("Stopped server of team {}", team);
-                                serverService.stopped(this, restart);
-                            },
-                            err -> log.error("Could not stop server {}", team))
-                    )
-                    .thenApply(r -> null);
-            send("stop");
-            log.info("Stopping server of team {}", team);
-            return future;
-        } catch (IOException e) {
-            log.error("Failed to build process builder", e);
-            throw new RuntimeException(e);
-        }
+        log.info("Stopping server of team {}", team);
+        return process().stop()
+                .whenComplete(Futures.whenComplete(
+                        exit -> {
+                            log.info("Stopped server of team {}", team);
+                            serverService.stopped(this, restart);
+                        },
+                        err -> log.error("Could not stop server {}", team))
+                );
     }
 
-    public void send(String command) {
+    /**
+     * Sends a command to the console of the server.
+     *
+     * @param command command to send
+     * @return true if the command was sent. False if the console of the server can not be reached.
+     */
+    public boolean send(String command) {
         log.info("Sending command \"{}\" to server of team {}.", command, team);
         try {
-            new ProcessBuilder()
-                    .directory(serverDir().toFile())
-                    .redirectOutput(ProcessBuilder.Redirect.to(processLogFile("send")))
-                    .command(List.of(
-                            "screen",
-                            "-S",
-                            screenName(),
-                            "-p",
-                            "0",
-                            "-X",
-                            "stuff",
-                            "%s^M".formatted(command)
-                    ))
-                    .start();
+            process().send(command);
+            return true;
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            log.warn("Could not send command to server of team {}: {}", team, e.getMessage());
+            return false;
         }
     }
 
-    private File processLogFile(String type) {
-        var processlog = serverDir().resolve("processlog");
-        try {
-            Files.createDirectories(processlog);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    /**
+     * The latest console output of the server.
+     *
+     * @return console lines, oldest first. Empty when the console is not captured by the process backend.
+     */
+    public List<String> console() {
+        return process == null ? List.of() : process.console();
+    }
+
+    private ServerProcess process() {
+        if (process == null) {
+            // The server was started by another bot instance and registered via velocity.
+            var server = configuration.serverManagement();
+            if (server.screenBackend()) {
+                process = new ScreenProcess(screenName(), serverDir(), processLogs::file);
+            } else {
+                process = NativeProcess.adopt(screenName(), processLogs, Duration.ofSeconds(server.stopTimeout()), apiPort);
+            }
         }
-        return processlog
-                .resolve("%s_%s.log".formatted(type, FORMATTER.format(LocalDateTime.now())))
-                .toFile();
+        return process;
+    }
+
+    private ServerProcess createProcess() {
+        var server = configuration.serverManagement();
+        if (server.screenBackend()) {
+            return new ScreenProcess(screenName(), serverDir(), processLogs::file);
+        }
+        return new NativeProcess(screenName(), processLogs, Duration.ofSeconds(server.stopTimeout()), server.consoleLines());
     }
 
     private Path serverDir() {
         return Path.of(configuration.serverManagement().serverDir(), String.valueOf(team().id()));
     }
 
+    /**
+     * Writes the token into a file only readable by the owner. The token must not be visible on the command line of
+     * the process, which can be read by any user on the host.
+     *
+     * @param token token or null to remove the token file
+     * @return the token file or empty if no token was written
+     */
+    private Optional<Path> writeToken(String token) {
+        var file = serverDir().resolve(TOKEN_FILE);
+        try {
+            Files.deleteIfExists(file);
+            if (token == null) return Optional.empty();
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            Files.writeString(file, token);
+            return Optional.of(file);
+        } catch (IOException | UnsupportedOperationException e) {
+            log.error("Could not write token file of team {}. Requests are only available via polling.", team, e);
+            return Optional.empty();
+        }
+    }
+
     private String teamName() {
         return team.meta().name().toLowerCase().replace(" ", "_");
     }
@@ -316,68 +388,55 @@ public class TeamServer {
     public boolean replaceWorld(Path newWorld) {
         log.info("Replacing world");
         var worldDir = serverDir().resolve("world");
-        var tempWorld = serverDir().resolve("t_world");
+        var stagingWorld = serverDir().resolve("t_world");
+        var oldWorld = serverDir().resolve("o_world");
+
+        if (!deleteDirectory(stagingWorld) || !deleteDirectory(oldWorld)) return false;
 
-        try (var zip = new ZipFile(newWorld.toFile())) {
-            log.info("Extracting zip file");
-            zip.extractAll(tempWorld.toAbsolutePath().toString());
+        try (var archive = new WorldArchive(newWorld)) {
+            var root = archive.root();
+            if (root.isEmpty()) {
+                log.warn("No region directory.");
+                return false;
+            }
+            log.info("Extracting world data");
+            archive.extract(root.get(), stagingWorld);
         } catch (IOException e) {
             log.info("Failed to extract zip file", e);
+            deleteDirectory(stagingWorld);
             return false;
         }
 
-        var copyWorld = tempWorld;
-        var dirFiles = List.of(tempWorld.toFile().listFiles());
-
-        var dirOffstet = 3;
-
-        if (dirFiles.size() == 1) {
-            log.info("No world data found");
-            copyWorld = tempWorld.resolve(dirFiles.get(0).getName());
-            dirOffstet++;
-        }
-
-        if (!copyWorld.resolve("region").toFile().exists()) {
-            log.warn("No region directory.");
-            return false;
-        }
-
-        log.info("Deleting old world");
-        if (!deleteDirectory(worldDir)) {
-            return false;
-        }
-
-        if (copyWorld.resolve("session.lock").toFile().exists()) {
-            log.info("Found session lock. Deleting.");
-            copyWorld.resolve("session.lock").toFile().delete();
-        }
-
-        log.info("Copy new world data.");
-        try (var files = Files.walk(copyWorld)) {
-            Files.createDirectories(worldDir);
-            for (var sourceTarget : files.toList()) {
-                // skip root dir
-                if (sourceTarget.getNameCount() == dirOffstet) continue;
-                var filePath = sourceTarget.subpath(dirOffstet, sourceTarget.getNameCount());
-                var serverTarget = worldDir.resolve(filePath);
-                Files.copy(sourceTarget, serverTarget, StandardCopyOption.REPLACE_EXISTING);
+        log.info("Swapping worlds");
+        try {
+            if (Files.exists(worldDir)) {
+                Files.move(worldDir, oldWorld, StandardCopyOption.ATOMIC_MOVE);
+            }
+            try {
+                Files.move(stagingWorld, worldDir, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                if (Files.exists(oldWorld)) Files.move(oldWorld, worldDir, StandardCopyOption.ATOMIC_MOVE);
+                throw e;
             }
         } catch (IOException e) {
-            log.error("Could not copy world", e);
+            log.error("Could not move world", e);
+            deleteDirectory(stagingWorld);
             return false;
         }
 
-        log.info("Cleaning up temp world");
-        return deleteDirectory(tempWorld);
+        log.info("Deleting old world");
+        return deleteDirectory(oldWorld);
     }
 
+    /**
+     * Deletes a directory of the server. The directory is removed immediately and its content deleted in the background.
+     *
+     * @param path directory to delete
+     * @return true when the directory is gone
+     */
     public boolean deleteDirectory(Path path) {
-        try (var files = Files.walk(path)) {
-            files.sorted(Comparator.reverseOrder())
-                    .map(Path::toFile)
-                    .forEach(File::delete);
-        } catch (NoSuchFileException e) {
-            return true;
+        try {
+            serverService.purger().purge(path);
         } catch (IOException e) {
             log.info("Could not delete directory", e);
             return false;
@@ -395,6 +454,20 @@ public class TeamServer {
         return plugins;
     }
 
+    /**
+     * Installs the team plugin. The plugin is only replaced if its content changed.
+     *
+     * @param in      plugin content
+     * @param maxSize maximum size of the plugin in bytes
+     * @return the result of the installation
+     * @throws IOException if the plugin could not be written or exceeds the maximum size
+     */
+    public PluginInstall installPlugin(InputStream in, long maxSize) throws IOException {
+        var pluginFile = plugins().resolve("plugin.jar");
+        log.info("Writing plugin to {}", pluginFile);
+        return PluginInstaller.install(in, pluginFile, maxSize);
+    }
+
     public Path world() {
         var plugins = serverDir().resolve("world");
         try {
@@ -487,23 +560,49 @@ public class TeamServer {
         return "🔴";
     }
 
-    public Optional<RequestsPayload> serverRequests() {
-        var request = requestBuilder("v1/requests").GET().build();
-        HttpResponse<String> send;
-        try {
-            send = http().send(request, HttpResponse.BodyHandlers.ofString());
-        } catch (IOException e) {
-            log.error("Could not connect to server");
-            throw new RuntimeException(e);
-        } catch (InterruptedException e) {
-            log.error("Could not connect to server", e);
-            throw new RuntimeException(e);
-        }
-        try {
-            return Optional.of(Mapper.MAPPER.readValue(send.body(), RequestsPayload.class));
-        } catch (JsonProcessingException e) {
-            log.error("Could not parse response", e);
-            throw new RuntimeException(e);
-        }
+    /**
+     * Reloads a plugin in place without restarting the server.
+     *
+     * @param fileName file name of the plugin jar in the plugin directory
+     * @return future which completes with true if the plugin was reloaded
+     */
+    public CompletableFuture<Boolean> reloadPlugin(String fileName) {
+        var request = requestBuilder("v1/plugins/reload")
+                .timeout(PLUGIN_RELOAD_TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.ofString(fileName))
+                .build();
+        log.info("Reloading plugin {} on server of team {}", fileName, team);
+        return http().sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() == 200) {
+                        log.info("Reloaded plugin {} on server of team {}", response.body(), team);
+                        return true;
+                    }
+                    log.warn("Could not reload plugin {} on server of team {}: {} {}", fileName, team, response.statusCode(), response.body());
+                    return false;
+                })
+                .exceptionally(err -> {
+                    log.warn("Could not reload plugin {} on server of team {}", fileName, team, err);
+                    return false;
+                });
+    }
+
+    /**
+     * Requests the pending server requests without blocking the calling thread.
+     *
+     * @param timeout timeout of the request
+     * @return future which completes exceptionally when the server could not be reached in time
+     */
+    public CompletableFuture<RequestsPayload> serverRequestsAsync(Duration timeout) {
+        var request = requestBuilder("v1/requests").timeout(timeout).GET().build();
+        return http().sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(response -> {
+                    try {
+                        return Mapper.MAPPER.readValue(response.body(), RequestsPayload.class);
+                    } catch (JsonProcessingException e) {
+                        throw new CompletionException(e);
+                    }
+                });
     }
 }
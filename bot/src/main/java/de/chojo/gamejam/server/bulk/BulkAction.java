@@ -0,0 +1,14 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.bulk;
+
+/**
+ * Actions which can be executed on multiple servers at once.
+ */
+public enum BulkAction {
+    START, STOP, RESTART
+}
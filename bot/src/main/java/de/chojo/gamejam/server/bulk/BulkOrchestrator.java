@@ -0,0 +1,150 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.bulk;
+
+import de.chojo.gamejam.configuration.Configuration;
+import de.chojo.gamejam.server.ServerService;
+import de.chojo.gamejam.server.TeamServer;
+import de.chojo.gamejam.server.resources.HostMemory;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Executes actions on multiple servers with limited parallelism.
+ * <p>
+ * Starting servers is staggered. A started server occupies one of the parallel slots for the stagger duration, so
+ * only a limited amount of servers warms up at the same time. A server is only started when the host has enough
+ * memory available and the {@link de.chojo.gamejam.server.resources.AdmissionController} admits it.
+ */
+public class BulkOrchestrator {
+    private static final Logger log = getLogger(BulkOrchestrator.class);
+    private final ServerService serverService;
+    private final Configuration configuration;
+
+    public BulkOrchestrator(ServerService serverService, Configuration configuration) {
+        this.serverService = serverService;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Executes the action on all servers affected by it. Servers which are not affected are ignored.
+     *
+     * @param action   action to execute
+     * @param servers  servers
+     * @param progress listener called whenever a server was processed
+     * @return the run
+     */
+    public BulkRun run(BulkAction action, List<TeamServer> servers, Consumer<BulkRun> progress) {
+        var affected = servers.stream()
+                .filter(server -> switch (action) {
+                    case START -> server.exists() && !server.running();
+                    case STOP, RESTART -> server.running();
+                })
+                .toList();
+        var run = new BulkRun(action, affected.size());
+        if (affected.isEmpty()) {
+            run.completion().complete(run);
+            return run;
+        }
+        var management = configuration.serverManagement();
+        var permits = new Semaphore(Math.max(1, management.bulkParallelism()), true);
+        log.info("Executing {} on {} servers", action, affected.size());
+        Thread.ofVirtual().name("bulk-" + action.name().toLowerCase()).start(() -> {
+            var dispatched = 0;
+            try {
+                for (var server : affected) {
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    dispatched++;
+                    CompletableFuture<Boolean> execution;
+                    try {
+                        execution = execute(action, server);
+                    } catch (RuntimeException e) {
+                        // Count servers failing right away like failed executions to keep the run going.
+                        execution = CompletableFuture.failedFuture(e);
+                    }
+                    execution.whenComplete((success, err) -> {
+                        if (err != null) log.error("Could not {} server {}", action, server, err);
+                        var result = err == null && success;
+                        if (result && action != BulkAction.STOP) {
+                            // Keep the slot occupied while the server warms up.
+                            CompletableFuture.delayedExecutor(management.bulkStagger(), TimeUnit.SECONDS).execute(permits::release);
+                        } else {
+                            permits.release();
+                        }
+                        run.finished(result);
+                        progress.accept(run);
+                    });
+                }
+            } finally {
+                // Servers which were not dispatched count as failed, so the run still completes when interrupted.
+                for (var i = dispatched; i < affected.size(); i++) run.finished(false);
+                if (dispatched < affected.size()) progress.accept(run);
+            }
+        });
+        run.completion().thenRun(() -> log.info("Executed {} on {}/{} servers in {} ms",
+                action, run.succeeded(), run.total(), run.elapsed().toMillis()));
+        return run;
+    }
+
+    private CompletableFuture<Boolean> execute(BulkAction action, TeamServer server) {
+        return switch (action) {
+            case START -> start(server);
+            case STOP -> server.stop().thenApply(v -> true);
+            // The stopped server is replaced by a new instance in the server service.
+            case RESTART -> server.stop().thenCompose(v -> start(serverService.get(server.team())));
+        };
+    }
+
+    private CompletableFuture<Boolean> start(TeamServer server) {
+        var timeout = configuration.serverManagement().bulkAdmissionTimeout();
+        return awaitHeadroom(server, System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout))
+                .thenCompose(available -> {
+                    if (available) return server.requestStart();
+                    log.warn("Not enough memory available to start server of team {}", server.team());
+                    return CompletableFuture.completedFuture(false);
+                });
+    }
+
+    /**
+     * Waits until the memory budget and the host have enough memory for the server. Checks again every second
+     * without blocking a thread in the meantime.
+     */
+    private CompletableFuture<Boolean> awaitHeadroom(TeamServer server, long deadline) {
+        if (hasHeadroom(server)) return CompletableFuture.completedFuture(true);
+        if (System.nanoTime() > deadline) return CompletableFuture.completedFuture(false);
+        return CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS))
+                .thenCompose(v -> awaitHeadroom(server, deadline));
+    }
+
+    private boolean hasHeadroom(TeamServer server) {
+        var required = server.committedMemory();
+        var budget = serverService.admission().budget();
+        if (budget.free() < required) {
+            log.debug("Waiting for memory budget. Free: {} MB, required: {} MB", budget.free(), required);
+            return false;
+        }
+        var available = HostMemory.available();
+        var reserve = configuration.serverManagement().memoryReserve();
+        if (available.isPresent() && available.getAsLong() < required + reserve) {
+            log.debug("Waiting for host memory. Available: {} MB, required: {} MB", available.getAsLong(), required + reserve);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.bulk;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of a bulk action.
+ */
+public class BulkRun {
+    private final BulkAction action;
+    private final int total;
+    private final AtomicInteger done = new AtomicInteger();
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final CompletableFuture<BulkRun> completion = new CompletableFuture<>();
+    private final long start = System.nanoTime();
+
+    BulkRun(BulkAction action, int total) {
+        this.action = action;
+        this.total = total;
+    }
+
+    public BulkAction action() {
+        return action;
+    }
+
+    /**
+     * Amount of servers affected by the action.
+     *
+     * @return amount of servers
+     */
+    public int total() {
+        return total;
+    }
+
+    /**
+     * Amount of servers which were processed.
+     *
+     * @return amount of processed servers
+     */
+    public int done() {
+        return done.get();
+    }
+
+    /**
+     * Amount of servers on which the action succeeded.
+     *
+     * @return amount of servers
+     */
+    public int succeeded() {
+        return succeeded.get();
+    }
+
+    /**
+     * The time passed since the action was started.
+     *
+     * @return elapsed time
+     */
+    public Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Future which completes once all servers are processed.
+     *
+     * @return completion future
+     */
+    public CompletableFuture<BulkRun> completion() {
+        return completion;
+    }
+
+    void finished(boolean success) {
+        if (success) succeeded.incrementAndGet();
+        if (done.incrementAndGet() == total) completion.complete(this);
+    }
+}
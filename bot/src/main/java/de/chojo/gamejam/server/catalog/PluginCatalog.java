@@ -0,0 +1,171 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.catalog;
+
+import de.chojo.gamejam.configuration.Configuration;
+import de.chojo.gamejam.server.files.DirectoryWatcher;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * In memory catalog of the plugins which can be installed on team servers.
+ * <p>
+ * The catalog is built on first use and refreshed in the background whenever the plugin directory changes.
+ */
+public class PluginCatalog implements DirectoryWatcher.Listener {
+    private static final Logger log = getLogger(PluginCatalog.class);
+    // Copying a jar emits several events. They are collected before the directory is read again.
+    private static final long REFRESH_DELAY = 1000;
+    private final Configuration configuration;
+    private final DirectoryWatcher watcher;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+    private Path directory;
+    private WatchKey key;
+
+    public PluginCatalog(Configuration configuration, DirectoryWatcher watcher) {
+        this.configuration = configuration;
+        this.watcher = watcher;
+    }
+
+    /**
+     * Completes plugin names case-insensitively.
+     *
+     * @param prefix prefix of the name
+     * @param limit  maximum amount of names
+     * @return names in alphabetical order
+     */
+    public List<String> complete(String prefix, int limit) {
+        return snapshot().trie().complete(prefix, limit).stream().map(PluginEntry::name).toList();
+    }
+
+    /**
+     * Get a plugin by its name.
+     *
+     * @param name name of the plugin
+     * @return the plugin if it exists
+     */
+    public Optional<PluginEntry> byName(String name) {
+        return Optional.ofNullable(snapshot().byName().get(name));
+    }
+
+    /**
+     * Get a plugin by its file name.
+     *
+     * @param fileName file name of the plugin
+     * @return the plugin if it exists
+     */
+    public Optional<PluginEntry> byFileName(String fileName) {
+        return Optional.ofNullable(snapshot().byFileName().get(fileName));
+    }
+
+    public Collection<PluginEntry> plugins() {
+        return snapshot().byName().values();
+    }
+
+    /**
+     * Reads the plugin directory again.
+     */
+    public synchronized void refresh() {
+        var dir = Path.of(configuration.plugins().pluginDir()).toAbsolutePath();
+        watch(dir);
+        var entries = new ArrayList<PluginEntry>();
+        try (var files = Files.list(dir)) {
+            for (var file : files.filter(Files::isRegularFile).toList()) {
+                try {
+                    entries.add(read(file));
+                } catch (IOException e) {
+                    log.warn("Could not read plugin {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not read plugin directory {}", dir, e);
+        }
+        snapshot = Snapshot.of(entries);
+        log.debug("Indexed {} plugins", entries.size());
+    }
+
+    @Override
+    public void changed(Path directory, WatchEvent<?> event) {
+        schedule();
+    }
+
+    @Override
+    public synchronized void invalidated(Path directory) {
+        key = null;
+        schedule();
+    }
+
+    private Snapshot snapshot() {
+        var current = snapshot;
+        if (current != null) return current;
+        synchronized (this) {
+            if (snapshot == null) refresh();
+            return snapshot;
+        }
+    }
+
+    private void schedule() {
+        if (!scheduled.compareAndSet(false, true)) return;
+        CompletableFuture.runAsync(() -> {
+            scheduled.set(false);
+            refresh();
+        }, CompletableFuture.delayedExecutor(REFRESH_DELAY, TimeUnit.MILLISECONDS));
+    }
+
+    private void watch(Path dir) {
+        if (key != null && dir.equals(directory)) return;
+        if (key != null) watcher.cancel(key);
+        key = null;
+        directory = dir;
+        if (!Files.isDirectory(dir)) return;
+        try {
+            key = watcher.register(dir, this, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.error("Could not watch plugin directory {}", dir, e);
+        }
+    }
+
+    private PluginEntry read(Path file) throws IOException {
+        var fileName = file.getFileName().toString();
+        var name = fileName.endsWith(".jar") ? fileName.substring(0, fileName.length() - 4) : fileName;
+        return new PluginEntry(name, file, Files.size(file), Files.getLastModifiedTime(file).toMillis());
+    }
+
+    private record Snapshot(PrefixTrie<PluginEntry> trie, Map<String, PluginEntry> byName,
+                            Map<String, PluginEntry> byFileName) {
+        static Snapshot of(Collection<PluginEntry> entries) {
+            var trie = new PrefixTrie<PluginEntry>();
+            Map<String, PluginEntry> byName = new HashMap<>();
+            Map<String, PluginEntry> byFileName = new HashMap<>();
+            for (var entry : entries) {
+                trie.put(entry.name(), entry);
+                byName.put(entry.name(), entry);
+                byFileName.put(entry.fileName(), entry);
+            }
+            return new Snapshot(trie, Map.copyOf(byName), Map.copyOf(byFileName));
+        }
+    }
+}
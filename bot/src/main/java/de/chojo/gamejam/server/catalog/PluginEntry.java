@@ -0,0 +1,23 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.catalog;
+
+import java.nio.file.Path;
+
+/**
+ * A plugin of the catalog.
+ *
+ * @param name     name of the plugin. This is the file name without the jar extension.
+ * @param path     path of the plugin file
+ * @param size     size in bytes
+ * @param modified last modification in epoch millis
+ */
+public record PluginEntry(String name, Path path, long size, long modified) {
+    public String fileName() {
+        return path.getFileName().toString();
+    }
+}
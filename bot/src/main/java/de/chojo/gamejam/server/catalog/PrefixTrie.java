@@ -0,0 +1,64 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Case-insensitive trie for prefix completion. Not thread safe while it is built.
+ *
+ * @param <V> type of the values
+ */
+class PrefixTrie<V> {
+    private final Node<V> root = new Node<>();
+
+    void put(String key, V value) {
+        var node = root;
+        for (var c : key.toLowerCase(Locale.ROOT).toCharArray()) {
+            node = node.children.computeIfAbsent(c, k -> new Node<>());
+        }
+        node.values.add(value);
+    }
+
+    /**
+     * Collects the values of all keys starting with the prefix in alphabetical order of their keys.
+     *
+     * @param prefix prefix
+     * @param limit  maximum amount of values
+     * @return values
+     */
+    List<V> complete(String prefix, int limit) {
+        var node = root;
+        for (var c : prefix.toLowerCase(Locale.ROOT).toCharArray()) {
+            node = node.children.get(c);
+            if (node == null) return List.of();
+        }
+        var result = new ArrayList<V>();
+        collect(node, result, limit);
+        return result;
+    }
+
+    private void collect(Node<V> node, List<V> result, int limit) {
+        for (var value : node.values) {
+            if (result.size() >= limit) return;
+            result.add(value);
+        }
+        for (var child : node.children.values()) {
+            if (result.size() >= limit) return;
+            collect(child, result, limit);
+        }
+    }
+
+    private static class Node<V> {
+        private final Map<Character, Node<V>> children = new TreeMap<>();
+        private final List<V> values = new ArrayList<>(1);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.files;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * In memory view of a directory tree for prefix lookups.
+ * <p>
+ * The index is built on first use and kept up to date by a {@link DirectoryWatcher}. If events were lost, the index
+ * is rebuilt on the next lookup.
+ */
+public class DirectoryIndex implements DirectoryWatcher.Listener {
+    private static final Logger log = getLogger(DirectoryIndex.class);
+    // Case-insensitive, with the exact name as tie breaker so names differing only in case are kept.
+    private static final Comparator<String> ORDER = Comparator.<String, String>comparing(name -> name.toLowerCase(Locale.ROOT))
+            .thenComparing(Comparator.naturalOrder());
+    private final Path root;
+    private final DirectoryWatcher watcher;
+    private final Map<Path, NavigableSet<String>> entries = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> keys = new ConcurrentHashMap<>();
+    private volatile boolean valid;
+
+    public DirectoryIndex(Path root, DirectoryWatcher watcher) {
+        this.root = root;
+        this.watcher = watcher;
+    }
+
+    /**
+     * Looks up the entries matching the input. Everything up to the last {@code /} of the input is the directory,
+     * the rest is a case-insensitive prefix of the entry name.
+     * <p>
+     * Directories end with a {@code /}. The returned paths are relative to the root.
+     *
+     * @param input           input of the user
+     * @param directoriesOnly true to only return directories
+     * @param limit           maximum amount of entries
+     * @return matching paths in alphabetical order
+     */
+    public List<String> lookup(String input, boolean directoriesOnly, int limit) {
+        ensureIndexed();
+        var slash = input.lastIndexOf('/');
+        var directory = slash == -1 ? "" : input.substring(0, slash + 1);
+        var prefix = input.substring(slash + 1);
+        var children = entries.get(relative(directory));
+        if (children == null) return List.of();
+
+        var lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        var result = new ArrayList<String>();
+        // The upper case variant is the smallest of all names equal to the prefix when ignoring case.
+        for (var name : children.tailSet(prefix.toUpperCase(Locale.ROOT), true)) {
+            if (!name.toLowerCase(Locale.ROOT).startsWith(lowerPrefix)) break;
+            if (directoriesOnly && !name.endsWith("/")) continue;
+            result.add(directory + name);
+            if (result.size() >= limit) break;
+        }
+        return result;
+    }
+
+    /**
+     * Stops watching the directory and drops the index.
+     */
+    public synchronized void close() {
+        keys.values().forEach(watcher::cancel);
+        keys.clear();
+        entries.clear();
+        valid = false;
+    }
+
+    @Override
+    public synchronized void changed(Path directory, WatchEvent<?> event) {
+        if (!valid) return;
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            log.debug("Lost events for {}. Rebuilding index.", root);
+            valid = false;
+            return;
+        }
+        var path = directory.resolve((Path) event.context());
+        var parent = entries.get(root.relativize(directory));
+        if (parent == null) return;
+        var name = path.getFileName().toString();
+        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                parent.add(name + "/");
+                try {
+                    index(path);
+                } catch (IOException e) {
+                    log.warn("Could not index {}. Rebuilding index.", path, e);
+                    valid = false;
+                }
+            } else {
+                parent.add(name);
+            }
+        } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+            parent.remove(name);
+            parent.remove(name + "/");
+            drop(root.relativize(path));
+        }
+    }
+
+    @Override
+    public synchronized void invalidated(Path directory) {
+        var relative = root.relativize(directory);
+        keys.remove(relative);
+        if (relative.toString().isEmpty()) {
+            // The root itself was removed. It will be indexed again once it exists.
+            valid = false;
+        }
+    }
+
+    private void ensureIndexed() {
+        if (valid) return;
+        synchronized (this) {
+            if (valid) return;
+            close();
+            if (!Files.isDirectory(root)) return;
+            try {
+                index(root);
+                valid = true;
+            } catch (IOException e) {
+                log.error("Could not index {}", root, e);
+            }
+        }
+    }
+
+    private void index(Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                var relative = root.relativize(dir);
+                // Register before listing, so no entry created in between is missed.
+                keys.put(relative, watcher.register(dir, DirectoryIndex.this));
+                entries.put(relative, new ConcurrentSkipListSet<>(ORDER));
+                if (!dir.equals(root)) {
+                    var parent = entries.get(root.relativize(dir.getParent()));
+                    if (parent != null) parent.add(dir.getFileName() + "/");
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                var parent = entries.get(root.relativize(file.getParent()));
+                if (parent != null) parent.add(file.getFileName().toString());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                // Deleted while walking. The watcher reports the deletion.
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void drop(Path relative) {
+        entries.keySet().removeIf(path -> path.startsWith(relative));
+        keys.entrySet().removeIf(entry -> {
+            if (!entry.getKey().startsWith(relative)) return false;
+            watcher.cancel(entry.getValue());
+            return true;
+        });
+    }
+
+    private Path relative(String directory) {
+        return root.relativize(root.resolve(directory)).normalize();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.files;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Deletes directories in the background.
+ * <p>
+ * A directory is moved into the trash directory first, which removes it atomically from its original location.
+ * The content is deleted afterwards by parallel workers, one per subtree.
+ */
+public class DirectoryPurger {
+    private static final Logger log = getLogger(DirectoryPurger.class);
+    private static final long PROGRESS_STEP = 10000;
+    private final Path trash;
+    private final ForkJoinPool pool;
+    private final AtomicLong counter = new AtomicLong();
+
+    /**
+     * Creates a new purger.
+     *
+     * @param trash       trash directory. Must be on the same file system as the purged directories.
+     * @param parallelism amount of parallel workers
+     */
+    public DirectoryPurger(Path trash, int parallelism) {
+        this.trash = trash;
+        pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    /**
+     * Deletes the leftovers of purges which were interrupted by a shutdown.
+     */
+    public void cleanup() {
+        if (!Files.isDirectory(trash)) return;
+        try (var entries = Files.list(trash)) {
+            for (var entry : entries.toList()) {
+                log.info("Purging leftover {}", entry);
+                submit(new PurgeJob(entry, entry));
+            }
+        } catch (IOException e) {
+            log.error("Could not read trash directory", e);
+        }
+    }
+
+    /**
+     * Purges a directory. The directory is moved to the trash before this method returns and deleted in the background.
+     *
+     * @param directory directory to purge
+     * @return the purge job
+     * @throws IOException if the directory could not be moved to the trash
+     */
+    public PurgeJob purge(Path directory) throws IOException {
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            var job = new PurgeJob(directory, directory);
+            job.complete();
+            return job;
+        }
+        Files.createDirectories(trash);
+        var target = trash.resolve("%s_%d".formatted(directory.getFileName(), counter.incrementAndGet()));
+        while (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            target = trash.resolve("%s_%d".formatted(directory.getFileName(), counter.incrementAndGet()));
+        }
+        Files.move(directory, target, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Moved {} to {}", directory, target);
+        return submit(new PurgeJob(directory, target));
+    }
+
+    private PurgeJob submit(PurgeJob job) {
+        pool.execute(() -> {
+            new DeleteTask(job, job.trash()).invoke();
+            job.complete();
+            if (job.failures().isEmpty()) {
+                log.info("Purged {} entries of {} in {} ms", job.deleted(), job.directory(), job.duration().toMillis());
+            } else {
+                log.warn("Purged {} entries of {} in {} ms. Could not delete {} entries: {}", job.deleted(), job.directory(),
+                        job.duration().toMillis(), job.failures().size(), job.failures().stream().limit(10).toList());
+            }
+        });
+        return job;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static class DeleteTask extends RecursiveAction {
+        private final PurgeJob job;
+        private final Path path;
+
+        private DeleteTask(PurgeJob job, Path path) {
+            this.job = job;
+            this.path = path;
+        }
+
+        @Override
+        protected void compute() {
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                var subtrees = new ArrayList<DeleteTask>();
+                try (var entries = Files.newDirectoryStream(path)) {
+                    for (var entry : entries) {
+                        if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                            subtrees.add(new DeleteTask(job, entry));
+                        } else {
+                            delete(entry);
+                        }
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not list {}", path, e);
+                }
+                invokeAll(subtrees);
+            }
+            delete(path);
+        }
+
+        private void delete(Path entry) {
+            try {
+                Files.delete(entry);
+            } catch (NoSuchFileException e) {
+                // already gone
+                return;
+            } catch (IOException e) {
+                log.debug("Could not delete {}", entry, e);
+                job.onFailed(entry);
+                return;
+            }
+            if (job.onDeleted() % PROGRESS_STEP == 0) {
+                log.info("Purged {} entries of {}", job.deleted(), job.directory());
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.files;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Watches directories for changed entries.
+ * <p>
+ * All directories share a single watch service and a single thread dispatching the events to their listeners.
+ */
+public class DirectoryWatcher {
+    private static final Logger log = getLogger(DirectoryWatcher.class);
+    private final WatchService service;
+    private final Map<WatchKey, Listener> listeners = new ConcurrentHashMap<>();
+
+    public DirectoryWatcher() {
+        try {
+            service = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create watch service", e);
+        }
+        Thread.ofPlatform().name("directory-watcher").daemon().start(this::dispatch);
+    }
+
+    /**
+     * Registers a directory. Subdirectories are not watched.
+     *
+     * @param directory directory to watch
+     * @param listener  listener receiving the events of the directory
+     * @return the key of the registration
+     * @throws IOException if the directory could not be registered
+     */
+    public WatchKey register(Path directory, Listener listener) throws IOException {
+        return register(directory, listener, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * Registers a directory for the given kinds of events. Subdirectories are not watched.
+     *
+     * @param directory directory to watch
+     * @param listener  listener receiving the events of the directory
+     * @param kinds     kinds of events
+     * @return the key of the registration
+     * @throws IOException if the directory could not be registered
+     */
+    public WatchKey register(Path directory, Listener listener, WatchEvent.Kind<?>... kinds) throws IOException {
+        var key = directory.register(service, kinds);
+        listeners.put(key, listener);
+        return key;
+    }
+
+    /**
+     * Stops watching a directory.
+     *
+     * @param key key of the registration
+     */
+    public void cancel(WatchKey key) {
+        key.cancel();
+        listeners.remove(key);
+    }
+
+    public void shutdown() {
+        try {
+            service.close();
+        } catch (IOException e) {
+            log.warn("Could not close watch service", e);
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            var directory = (Path) key.watchable();
+            var listener = listeners.get(key);
+            for (var event : key.pollEvents()) {
+                if (listener == null) continue;
+                try {
+                    listener.changed(directory, event);
+                } catch (RuntimeException e) {
+                    log.error("Failed to handle change in {}", directory, e);
+                }
+            }
+            if (!key.reset()) {
+                // The directory is gone or the key was cancelled.
+                listeners.remove(key);
+                if (listener != null) listener.invalidated(directory);
+            }
+        }
+    }
+
+    public interface Listener {
+        /**
+         * Called when an entry of the directory was created or deleted or when events were lost.
+         *
+         * @param directory watched directory
+         * @param event     event
+         */
+        void changed(Path directory, WatchEvent<?> event);
+
+        /**
+         * Called when the directory can no longer be watched, usually because it was deleted.
+         *
+         * @param directory watched directory
+         */
+        void invalidated(Path directory);
+    }
+}
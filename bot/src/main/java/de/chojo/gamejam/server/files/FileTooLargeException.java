@@ -0,0 +1,25 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.files;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a stream exceeds the allowed size.
+ */
+public class FileTooLargeException extends IOException {
+    private final long maxSize;
+
+    public FileTooLargeException(long maxSize) {
+        super("File exceeds the maximum size of %d bytes".formatted(maxSize));
+        this.maxSize = maxSize;
+    }
+
+    public long maxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.files;
+
+/**
+ * Result of a plugin installation.
+ *
+ * @param changed true if the plugin differs from the installed plugin and was replaced
+ * @param size    size of the plugin in bytes
+ * @param hash    sha-256 hash of the plugin
+ */
+public record PluginInstall(boolean changed, long size, String hash) {
+}
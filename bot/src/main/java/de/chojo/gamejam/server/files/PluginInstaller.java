@@ -0,0 +1,63 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.files;
+
+import de.chojo.gamejam.util.Hashes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.util.UUID;
+
+/**
+ * Installs plugin jars. The upload is streamed into a temporary file and only replaces the plugin if its content changed.
+ */
+public final class PluginInstaller {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private PluginInstaller() {
+        throw new UnsupportedOperationException("This is a utility class.");
+    }
+
+    /**
+     * Installs the plugin.
+     *
+     * @param in      plugin content
+     * @param target  plugin file
+     * @param maxSize maximum size of the plugin in bytes
+     * @return the result of the installation
+     * @throws FileTooLargeException if the plugin is larger than the maximum size
+     * @throws IOException           if the plugin could not be written
+     */
+    public static PluginInstall install(InputStream in, Path target, long maxSize) throws IOException {
+        var temp = target.resolveSibling(".%s.%s.tmp".formatted(target.getFileName(), UUID.randomUUID()));
+        try {
+            var digest = Hashes.sha256();
+            long size = 0;
+            try (var digestIn = new DigestInputStream(in, digest); var out = Files.newOutputStream(temp)) {
+                var buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = digestIn.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) throw new FileTooLargeException(maxSize);
+                    out.write(buffer, 0, read);
+                }
+            }
+            var hash = Hashes.hex(digest);
+            if (Files.isRegularFile(target) && hash.equals(Hashes.sha256(target))) {
+                return new PluginInstall(false, size, hash);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return new PluginInstall(true, size, hash);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.files;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A running deletion of a directory.
+ */
+public class PurgeJob {
+    private final Path directory;
+    private final Path trash;
+    private final AtomicLong deleted = new AtomicLong();
+    private final Queue<Path> failures = new ConcurrentLinkedQueue<>();
+    private final CompletableFuture<PurgeJob> completion = new CompletableFuture<>();
+    private final long start = System.nanoTime();
+    private volatile Duration duration;
+
+    PurgeJob(Path directory, Path trash) {
+        this.directory = directory;
+        this.trash = trash;
+    }
+
+    /**
+     * The original path of the directory.
+     *
+     * @return directory path
+     */
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * The path the directory is deleted from.
+     *
+     * @return trash path
+     */
+    public Path trash() {
+        return trash;
+    }
+
+    /**
+     * Amount of files and directories deleted so far.
+     *
+     * @return amount of deleted entries
+     */
+    public long deleted() {
+        return deleted.get();
+    }
+
+    /**
+     * Entries which could not be deleted.
+     *
+     * @return list of failed paths
+     */
+    public List<Path> failures() {
+        return List.copyOf(failures);
+    }
+
+    /**
+     * Whether all entries were deleted.
+     *
+     * @return true if the purge is done and nothing failed
+     */
+    public boolean success() {
+        return completion.isDone() && failures.isEmpty();
+    }
+
+    /**
+     * The duration of the purge.
+     *
+     * @return duration of the purge or null if the purge is not done yet
+     */
+    public Duration duration() {
+        return duration;
+    }
+
+    /**
+     * Future which completes once the purge is done.
+     *
+     * @return the completion future
+     */
+    public CompletableFuture<PurgeJob> completion() {
+        return completion;
+    }
+
+    long onDeleted() {
+        return deleted.incrementAndGet();
+    }
+
+    void onFailed(Path path) {
+        failures.add(path);
+    }
+
+    void complete() {
+        duration = Duration.ofNanos(System.nanoTime() - start);
+        completion.complete(this);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.files;
+
+import org.slf4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Zips directories directly into a stream without writing the archive to disk.
+ * <p>
+ * Files which are already compressed are stored without compressing them again.
+ */
+public final class ZipStream {
+    private static final Logger log = getLogger(ZipStream.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Approximate size of the local header, central directory entry and data descriptor of an entry without its name.
+    private static final int ENTRY_OVERHEAD = 128;
+    private static final Set<String> COMPRESSED = Set.of(
+            "zip", "jar", "gz", "tgz", "xz", "bz2", "7z", "rar",
+            "png", "jpg", "jpeg", "gif", "webp", "ogg", "mp3",
+            "mca", "mcr", "dat", "nbt", "schem", "schematic", "litematic");
+
+    private ZipStream() {
+        throw new UnsupportedOperationException("This is a utility class.");
+    }
+
+    /**
+     * Calculates the smallest size the archive of the directory can have. Compressed files are counted with their
+     * full size, while all other files are assumed to compress to nothing.
+     *
+     * @param directory directory to zip
+     * @return minimum archive size in bytes
+     * @throws IOException if the directory could not be read
+     */
+    public static long minimumSize(Path directory) throws IOException {
+        long size = 0;
+        for (var file : files(directory)) {
+            size += ENTRY_OVERHEAD + 2L * entryName(directory, file).length();
+            if (!compressed(file)) continue;
+            try {
+                size += Files.size(file);
+            } catch (NoSuchFileException e) {
+                // Deleted since listing. It will be skipped while zipping as well.
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Opens a stream which contains the zipped directory. The archive is written by a separate thread while the
+     * stream is read. All entries are placed inside a folder with the name of the directory.
+     * <p>
+     * Closing the stream early aborts the zipping. If zipping fails, reading the stream fails as well. Files deleted
+     * while zipping are skipped.
+     *
+     * @param directory directory to zip
+     * @return stream of the archive
+     * @throws IOException if the pipe could not be created
+     */
+    public static InputStream open(Path directory) throws IOException {
+        var in = new PipedInputStream(BUFFER_SIZE);
+        var out = new PipedOutputStream(in);
+        Thread.ofVirtual().name("zip-" + directory.getFileName()).start(() -> {
+            var zip = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+            try {
+                write(directory, zip);
+                zip.close();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to zip {}", directory, e);
+                // The read side is closed first and the archive is not finished, so the reader fails instead of
+                // receiving a truncated archive with a valid central directory.
+                close(in);
+                close(out);
+            }
+        });
+        return in;
+    }
+
+    private static void write(Path directory, ZipOutputStream zip) throws IOException {
+        for (var file : files(directory)) {
+            FileTime modified;
+            InputStream input;
+            try {
+                modified = Files.getLastModifiedTime(file);
+                input = Files.newInputStream(file);
+            } catch (NoSuchFileException e) {
+                log.debug("Skipping {}. It was deleted while zipping.", file);
+                continue;
+            }
+            try (input) {
+                zip.setLevel(compressed(file) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+                var entry = new ZipEntry(entryName(directory, file));
+                entry.setLastModifiedTime(modified);
+                zip.putNextEntry(entry);
+                input.transferTo(zip);
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private static List<Path> files(Path directory) throws IOException {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            return stream.filter(path -> Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS))
+                         .sorted()
+                         .toList();
+        }
+    }
+
+    private static String entryName(Path directory, Path file) {
+        var relative = directory.relativize(file).toString().replace('\\', '/');
+        return directory.getFileName() + "/" + relative;
+    }
+
+    private static boolean compressed(Path file) {
+        var name = file.getFileName().toString();
+        var dot = name.lastIndexOf('.');
+        if (dot == -1) return false;
+        return COMPRESSED.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static void close(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+}
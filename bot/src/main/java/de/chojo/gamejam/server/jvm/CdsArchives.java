@@ -0,0 +1,175 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.jvm;
+
+import de.chojo.gamejam.util.Hashes;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Manages the dynamic class data sharing archives shared by all servers using the same jvm profile.
+ * <p>
+ * An archive is bound to the server jar of the template and the jvm arguments of the profile. If no archive exists,
+ * the next started server dumps its loaded classes on exit. The archive is published once the server exited and used
+ * by all following server starts.
+ */
+public class CdsArchives {
+    private static final Logger log = getLogger(CdsArchives.class);
+    private final Path directory;
+    private final Set<String> generating = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a new archive manager
+     *
+     * @param directory directory of the archives. Must not be part of the server template.
+     */
+    public CdsArchives(Path directory) {
+        this.directory = directory.toAbsolutePath();
+    }
+
+    /**
+     * Resolves the java executable which is found first on the path.
+     * <p>
+     * Servers using class data sharing have to be launched with this executable, as the archive is bound to it.
+     *
+     * @return the real path of the executable or an empty optional if no java executable is on the path
+     */
+    public static Optional<Path> java() {
+        var path = System.getenv("PATH");
+        if (path == null) return Optional.empty();
+        var executable = System.getProperty("os.name").toLowerCase(Locale.ROOT).startsWith("windows") ? "java.exe" : "java";
+        for (var entry : path.split(File.pathSeparator)) {
+            if (entry.isBlank()) continue;
+            var candidate = Path.of(entry, executable);
+            if (!Files.isRegularFile(candidate) || !Files.isExecutable(candidate)) continue;
+            try {
+                return Optional.of(candidate.toRealPath());
+            } catch (IOException e) {
+                log.debug("Could not resolve {}", candidate, e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Prepares the class data sharing of a server launch.
+     *
+     * @param profile   name of the jvm profile
+     * @param java      java executable retrieved via {@link #java()} the server is launched with
+     * @param serverJar server jar of the template
+     * @param arguments jvm arguments of the server
+     * @return the launch
+     */
+    public CdsLaunch prepare(String profile, Path java, Path serverJar, List<String> arguments) {
+        String name;
+        try {
+            Files.createDirectories(directory);
+            name = "%s-%s".formatted(profile, fingerprint(java, serverJar, arguments));
+        } catch (IOException e) {
+            log.warn("Could not prepare class data sharing archive for profile {}", profile, e);
+            return CdsLaunch.NONE;
+        }
+        var archive = directory.resolve(name + ".jsa");
+        if (Files.isRegularFile(archive)) {
+            return new Use(archive);
+        }
+        if (!generating.add(name)) {
+            // Another server creates the archive right now.
+            return CdsLaunch.NONE;
+        }
+        log.info("Creating class data sharing archive {}", archive.getFileName());
+        return new Create(profile, name, archive, directory.resolve("%s.%s.tmp".formatted(name, UUID.randomUUID())));
+    }
+
+    private String fingerprint(Path java, Path serverJar, List<String> arguments) throws IOException {
+        var digest = Hashes.sha256();
+        var jar = serverJar.toRealPath();
+        digest.update(jar.toString().getBytes(StandardCharsets.UTF_8));
+        digest.update(Long.toString(Files.size(jar)).getBytes(StandardCharsets.UTF_8));
+        digest.update(Long.toString(Files.getLastModifiedTime(jar).toMillis()).getBytes(StandardCharsets.UTF_8));
+        digest.update(String.join(" ", arguments).getBytes(StandardCharsets.UTF_8));
+        // An archive can only be mapped by the jvm build which dumped it. An updated jvm replaces the executable.
+        digest.update(java.toString().getBytes(StandardCharsets.UTF_8));
+        digest.update(Long.toString(Files.size(java)).getBytes(StandardCharsets.UTF_8));
+        digest.update(Long.toString(Files.getLastModifiedTime(java).toMillis()).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+
+    private record Use(Path archive) implements CdsLaunch {
+        @Override
+        public List<String> arguments() {
+            return List.of("-XX:SharedArchiveFile=" + archive);
+        }
+
+        @Override
+        public void exited() {
+        }
+    }
+
+    private class Create implements CdsLaunch {
+        private final String profile;
+        private final String name;
+        private final Path archive;
+        private final Path dump;
+
+        private Create(String profile, String name, Path archive, Path dump) {
+            this.profile = profile;
+            this.name = name;
+            this.archive = archive;
+            this.dump = dump;
+        }
+
+        @Override
+        public List<String> arguments() {
+            return List.of("-XX:ArchiveClassesAtExit=" + dump);
+        }
+
+        @Override
+        public void exited() {
+            try {
+                if (Files.isRegularFile(dump) && Files.size(dump) > 0) {
+                    Files.move(dump, archive, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    log.info("Created class data sharing archive {}", archive.getFileName());
+                    deleteOutdated();
+                } else {
+                    log.warn("Server exited without creating class data sharing archive {}", archive.getFileName());
+                    Files.deleteIfExists(dump);
+                }
+            } catch (IOException e) {
+                log.warn("Could not publish class data sharing archive {}", archive.getFileName(), e);
+            } finally {
+                generating.remove(name);
+            }
+        }
+
+        private void deleteOutdated() throws IOException {
+            try (var files = Files.list(directory)) {
+                for (var file : files.toList()) {
+                    var fileName = file.getFileName().toString();
+                    if (fileName.startsWith(profile + "-") && fileName.endsWith(".jsa") && !file.equals(archive)) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+    }
+}
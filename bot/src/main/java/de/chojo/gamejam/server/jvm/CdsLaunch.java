@@ -0,0 +1,40 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.jvm;
+
+import java.util.List;
+
+/**
+ * The class data sharing arguments of a single server launch.
+ */
+public interface CdsLaunch {
+    /**
+     * Launch without class data sharing.
+     */
+    CdsLaunch NONE = new CdsLaunch() {
+        @Override
+        public List<String> arguments() {
+            return List.of();
+        }
+
+        @Override
+        public void exited() {
+        }
+    };
+
+    /**
+     * The jvm arguments which use or create the archive.
+     *
+     * @return list of jvm arguments
+     */
+    List<String> arguments();
+
+    /**
+     * Called once the server process exited. Publishes an archive created by this launch.
+     */
+    void exited();
+}
@@ -0,0 +1,64 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.jvm;
+
+import de.chojo.gamejam.configuration.elements.JvmProfile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the jvm arguments of a {@link JvmProfile}.
+ */
+public final class JvmArguments {
+    private static final List<String> AIKAR = List.of(
+            "-XX:+ParallelRefProcEnabled",
+            "-XX:MaxGCPauseMillis=200",
+            "-XX:+UnlockExperimentalVMOptions",
+            "-XX:+DisableExplicitGC",
+            "-XX:+AlwaysPreTouch",
+            "-XX:G1NewSizePercent=30",
+            "-XX:G1MaxNewSizePercent=40", "-XX:G1HeapRegionSize=8M",
+            "-XX:G1ReservePercent=20",
+            "-XX:G1HeapWastePercent=5",
+            "-XX:G1MixedGCCountTarget=4",
+            "-XX:InitiatingHeapOccupancyPercent=15",
+            "-XX:G1MixedGCLiveThresholdPercent=90",
+            "-XX:G1RSetUpdatingPauseTimePercent=5",
+            "-XX:SurvivorRatio=32",
+            "-XX:+PerfDisableSharedMem",
+            "-XX:MaxTenuringThreshold=1",
+            "-Dusing.aikars.flags=https://mcflags.emc.gs",
+            "-Daikars.new.flags=true"
+    );
+
+    private JvmArguments() {
+        throw new UnsupportedOperationException("This is a utility class.");
+    }
+
+    /**
+     * The memory, garbage collector and additional flags of a profile.
+     *
+     * @param profile profile
+     * @param memory  heap size in MB
+     * @return list of jvm arguments
+     */
+    public static List<String> of(JvmProfile profile, int memory) {
+        var arguments = new ArrayList<String>();
+        arguments.add("-Xmx%dM".formatted(memory));
+        arguments.add("-Xms%dM".formatted(memory));
+        var gc = profile.gc();
+        if (gc != null && !gc.isBlank()) {
+            arguments.add("-XX:+Use%sGC".formatted(gc));
+        }
+        if (profile.aikarFlags() && (gc == null || gc.isBlank() || "G1".equalsIgnoreCase(gc))) {
+            arguments.addAll(AIKAR);
+        }
+        arguments.addAll(profile.flags());
+        return arguments;
+    }
+}
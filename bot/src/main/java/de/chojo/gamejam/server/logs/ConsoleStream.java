@@ -0,0 +1,108 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.logs;
+
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Streams log lines into a text channel.
+ * <p>
+ * Lines are collected and sent as one message once a message is full or the flush interval passed.
+ * Only one message is in flight at any time, so the stream never sends faster than the channel rate limit allows.
+ * If lines arrive faster than they can be sent, the oldest lines are skipped.
+ */
+class ConsoleStream {
+    private static final Logger log = getLogger(ConsoleStream.class);
+    private static final int MAX_CONTENT = 1900;
+    private static final int MAX_BACKLOG = MAX_CONTENT * 10;
+    private final String name;
+    private final Supplier<Optional<TextChannel>> channel;
+    private final Deque<String> pending = new ArrayDeque<>();
+    private int pendingChars;
+    private long skipped;
+    private boolean sending;
+    private boolean cancelled;
+    private LogSubscription subscription;
+
+    ConsoleStream(String name, Supplier<Optional<TextChannel>> channel) {
+        this.name = name;
+        this.channel = channel;
+    }
+
+    void subscription(LogSubscription subscription) {
+        this.subscription = subscription;
+    }
+
+    void cancel() {
+        subscription.cancel();
+        synchronized (this) {
+            // The stream is no longer flushed periodically. Remaining lines are sent once the message in flight is sent.
+            cancelled = true;
+            flush();
+        }
+    }
+
+    synchronized void append(List<String> lines) {
+        for (var line : lines) {
+            // Prevent lines from closing the code block.
+            line = line.replace("```", "`\u200b``");
+            if (line.length() > MAX_CONTENT) line = line.substring(0, MAX_CONTENT);
+            pending.add(line);
+            pendingChars += line.length() + 1;
+        }
+        while (pendingChars > MAX_BACKLOG) {
+            pendingChars -= pending.removeFirst().length() + 1;
+            skipped++;
+        }
+        if (pendingChars >= MAX_CONTENT) flush();
+    }
+
+    synchronized void flush() {
+        if (sending || pending.isEmpty() && skipped == 0) return;
+        var optChannel = channel.get();
+        if (optChannel.isEmpty()) {
+            log.debug("Text channel of {} is gone. Dropping console lines.", name);
+            pending.clear();
+            pendingChars = 0;
+            skipped = 0;
+            return;
+        }
+
+        var content = new StringBuilder();
+        if (skipped > 0) {
+            content.append("... %d lines skipped ...%n".formatted(skipped));
+            skipped = 0;
+        }
+        while (!pending.isEmpty() && content.length() + pending.peekFirst().length() + 1 <= MAX_CONTENT) {
+            var line = pending.removeFirst();
+            pendingChars -= line.length() + 1;
+            content.append(line).append("\n");
+        }
+
+        sending = true;
+        optChannel.get().sendMessage("```log%n%s```".formatted(content))
+                  .queue(success -> sent(), err -> {
+                      log.warn("Could not stream console of {}", name, err);
+                      sent();
+                  });
+    }
+
+    private synchronized void sent() {
+        sending = false;
+        // Send the next message directly if another one is already full or the stream is drained after cancellation.
+        if (cancelled || pendingChars >= MAX_CONTENT) flush();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.logs;
+
+import de.chojo.gamejam.configuration.Configuration;
+import de.chojo.gamejam.data.dao.guild.jams.jam.teams.Team;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import org.slf4j.Logger;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Streams the logs of team servers into the text channels of the teams.
+ */
+public class ConsoleStreams {
+    private static final Logger log = getLogger(ConsoleStreams.class);
+    private final LogService logs;
+    private final Map<Integer, ConsoleStream> streams = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("console-stream").daemon().factory());
+
+    public ConsoleStreams(LogService logs, Configuration configuration) {
+        this.logs = logs;
+        var interval = Math.max(1, configuration.serverManagement().consoleStreamInterval());
+        executor.scheduleAtFixedRate(this::flushAll, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts streaming the log into the text channel of the team.
+     *
+     * @param team    team
+     * @param logFile log file of the team server
+     * @return false if the team has no text channel
+     */
+    public boolean enable(Team team, Path logFile) {
+        if (team.meta().textChannel().isEmpty()) return false;
+        streams.computeIfAbsent(team.id(), id -> {
+            log.info("Streaming console of team {}", team);
+            Supplier<Optional<TextChannel>> channel = () -> team.meta().textChannel();
+            var stream = new ConsoleStream(team.toString(), channel);
+            stream.subscription(logs.follow(logFile, stream::append));
+            return stream;
+        });
+        return true;
+    }
+
+    /**
+     * Stops streaming the log of the team. Pending lines are still sent.
+     *
+     * @param team team
+     */
+    public void disable(Team team) {
+        var stream = streams.remove(team.id());
+        if (stream != null) stream.cancel();
+    }
+
+    public boolean enabled(Team team) {
+        return streams.containsKey(team.id());
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        streams.values().forEach(ConsoleStream::cancel);
+        streams.clear();
+    }
+
+    private void flushAll() {
+        for (var stream : streams.values()) {
+            try {
+                stream.flush();
+            } catch (RuntimeException e) {
+                log.error("Could not flush console stream", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.logs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filter for log lines.
+ *
+ * @param grep  case-insensitive text the line has to contain or null
+ * @param level minimum level of the line or null
+ */
+public record LogFilter(String grep, LogLevel level) {
+    public static final LogFilter NONE = new LogFilter(null, null);
+
+    /**
+     * Filters the lines. Lines without a level, like stack traces, inherit the level of the previous line.
+     *
+     * @param lines lines, oldest first
+     * @return matching lines, oldest first
+     */
+    public List<String> apply(List<String> lines) {
+        if (grep == null && level == null) return lines;
+        var search = grep == null ? null : grep.toLowerCase(Locale.ROOT);
+        var result = new ArrayList<String>();
+        var current = LogLevel.INFO;
+        for (var line : lines) {
+            current = LogLevel.of(line).orElse(current);
+            if (level != null && current.compareTo(level) < 0) continue;
+            if (search != null && !line.toLowerCase(Locale.ROOT).contains(search)) continue;
+            result.add(line);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.logs;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Levels of log lines written by the server.
+ */
+public enum LogLevel {
+    DEBUG, INFO, WARN, ERROR;
+
+    // Matches "[12:00:00 INFO]:" as well as "[12:00:00] [Server thread/INFO]:"
+    private static final Pattern LEVEL = Pattern.compile("^\\[(?:[^]]+] \\[[^]]*/|\\S+ )(DEBUG|INFO|WARN|ERROR|FATAL)]");
+
+    /**
+     * Parses the level of a log line.
+     *
+     * @param line log line
+     * @return the level or empty if the line has no level, e.g. a stack trace.
+     */
+    public static Optional<LogLevel> of(String line) {
+        var matcher = LEVEL.matcher(line);
+        if (!matcher.find()) return Optional.empty();
+        var level = matcher.group(1);
+        return Optional.of("FATAL".equals(level) ? ERROR : valueOf(level));
+    }
+
+    public static Optional<LogLevel> parse(String name) {
+        try {
+            return Optional.of(valueOf(name.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
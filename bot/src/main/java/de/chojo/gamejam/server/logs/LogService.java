@@ -0,0 +1,96 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.logs;
+
+import de.chojo.gamejam.configuration.Configuration;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Provides the latest lines of server logs without reading the whole file.
+ * <p>
+ * A log is followed once it is requested for the first time and dropped again when it was not requested for a while
+ * and has no subscribers.
+ */
+public class LogService {
+    private static final Logger log = getLogger(LogService.class);
+    private static final long POLL_INTERVAL = 1000;
+    private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(15);
+    private final Configuration configuration;
+    private final Map<Path, LogTail> tails = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("log-tail").daemon().factory());
+
+    public LogService(Configuration configuration) {
+        this.configuration = configuration;
+        executor.scheduleWithFixedDelay(this::pollAll, POLL_INTERVAL, POLL_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the latest lines of a log file.
+     *
+     * @param file   log file
+     * @param filter filter applied to the lines
+     * @return matching lines, oldest first
+     */
+    public List<String> lines(Path file, LogFilter filter) {
+        var tail = tail(file);
+        // Catch up directly, so the first request does not miss lines written since the last poll.
+        poll(tail);
+        return filter.apply(tail.lines());
+    }
+
+    /**
+     * Follows a log file. The listener receives the appended lines in batches on the polling thread.
+     * <p>
+     * A followed log is not dropped while the subscription is active.
+     *
+     * @param file     log file
+     * @param listener listener for appended lines
+     * @return subscription which stops following once cancelled
+     */
+    public LogSubscription follow(Path file, Consumer<List<String>> listener) {
+        var tail = tail(file);
+        tail.listen(listener);
+        // Read the current end, so only lines written from now on are reported.
+        poll(tail);
+        return () -> tail.unlisten(listener);
+    }
+
+    private LogTail tail(Path file) {
+        return tails.computeIfAbsent(file.toAbsolutePath(), path -> new LogTail(path, configuration.serverManagement().logLines()));
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void pollAll() {
+        var idle = System.currentTimeMillis() - IDLE_TIMEOUT;
+        tails.values().removeIf(tail -> !tail.followed() && tail.lastAccess() < idle);
+        tails.values().forEach(this::poll);
+    }
+
+    private void poll(LogTail tail) {
+        try {
+            tail.poll();
+        } catch (IOException e) {
+            log.warn("Could not read log", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.logs;
+
+/**
+ * An active subscription to a followed log.
+ */
+@FunctionalInterface
+public interface LogSubscription {
+    /**
+     * Stops receiving lines.
+     */
+    void cancel();
+}
@@ -0,0 +1,167 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.logs;
+
+import de.chojo.gamejam.server.process.LineBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Follows a log file and keeps its latest lines in a {@link LineBuffer}.
+ * <p>
+ * Only the end of the file is read when the tail is created. Afterwards only appended bytes are read.
+ * A truncated or replaced file is read from its start again.
+ * <p>
+ * Listeners receive the lines appended to the file after the tail was created.
+ */
+class LogTail {
+    // Upper bound of bytes read from the end of the file to fill the buffer initially.
+    private static final int SEED_BYTES = 256 * 1024;
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private final Path file;
+    private final LineBuffer lines;
+    private final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+    private final List<Consumer<List<String>>> listeners = new CopyOnWriteArrayList<>();
+    private List<String> appended = new ArrayList<>();
+    private Object fileKey;
+    private long position = -1;
+    private volatile long lastAccess = System.currentTimeMillis();
+
+    LogTail(Path file, int capacity) {
+        this.file = file;
+        lines = new LineBuffer(capacity);
+    }
+
+    List<String> lines() {
+        lastAccess = System.currentTimeMillis();
+        return lines.lines();
+    }
+
+    long lastAccess() {
+        return lastAccess;
+    }
+
+    void listen(Consumer<List<String>> listener) {
+        listeners.add(listener);
+    }
+
+    void unlisten(Consumer<List<String>> listener) {
+        listeners.remove(listener);
+    }
+
+    boolean followed() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Reads everything appended since the last call.
+     *
+     * @throws IOException if the file could not be read
+     */
+    void poll() throws IOException {
+        List<String> lines;
+        synchronized (this) {
+            read();
+            if (appended.isEmpty()) return;
+            lines = appended;
+            appended = new ArrayList<>();
+        }
+        for (var listener : listeners) {
+            listener.accept(lines);
+        }
+    }
+
+    private void read() throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        var size = attributes.size();
+        if (position < 0) {
+            seed(size);
+            fileKey = attributes.fileKey();
+            // Lines which existed before the tail was created are not reported as appended.
+            appended.clear();
+            return;
+        }
+        if (size < position || !Objects.equals(fileKey, attributes.fileKey())) {
+            // The log was rotated. The lines of the previous file stay in the buffer.
+            flushPartial();
+            position = 0;
+            fileKey = attributes.fileKey();
+        }
+        if (size == position) return;
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            channel.position(position);
+            int read;
+            while ((read = channel.read(buffer)) > 0) {
+                position += read;
+                consume(buffer.array(), 0, read);
+                buffer.clear();
+            }
+        }
+    }
+
+    private void seed(long size) throws IOException {
+        var start = Math.max(0, size - SEED_BYTES);
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate((int) (size - start));
+            channel.position(start);
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // read until the buffer is full
+            }
+            var bytes = buffer.array();
+            var offset = 0;
+            if (start > 0) {
+                // Skip the first line, which is most likely incomplete.
+                while (offset < buffer.position() && bytes[offset] != '\n') offset++;
+                offset++;
+            }
+            if (offset < buffer.position()) consume(bytes, offset, buffer.position() - offset);
+            position = start + buffer.position();
+        }
+    }
+
+    private void consume(byte[] bytes, int offset, int length) {
+        var lineStart = offset;
+        var end = offset + length;
+        for (var i = offset; i < end; i++) {
+            if (bytes[i] != '\n') continue;
+            partial.write(bytes, lineStart, i - lineStart);
+            flushPartial();
+            lineStart = i + 1;
+        }
+        partial.write(bytes, lineStart, end - lineStart);
+    }
+
+    private void flushPartial() {
+        if (partial.size() == 0) return;
+        var line = partial.toString(StandardCharsets.UTF_8);
+        partial.reset();
+        if (line.endsWith("\r")) line = line.substring(0, line.length() - 1);
+        lines.add(line);
+        appended.add(line);
+    }
+}
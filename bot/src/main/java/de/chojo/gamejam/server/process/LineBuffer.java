@@ -0,0 +1,55 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.process;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A ring buffer which keeps the latest lines and drops the oldest ones once full.
+ */
+public class LineBuffer {
+    private final String[] lines;
+    private int next;
+    private int size;
+
+    public LineBuffer(int capacity) {
+        lines = new String[Math.max(1, capacity)];
+    }
+
+    public synchronized void add(String line) {
+        lines[next] = line;
+        next = (next + 1) % lines.length;
+        size = Math.min(size + 1, lines.length);
+    }
+
+    /**
+     * Get the latest lines.
+     *
+     * @param amount max amount of lines
+     * @return lines, oldest first
+     */
+    public synchronized List<String> tail(int amount) {
+        var count = Math.min(Math.max(0, amount), size);
+        var result = new ArrayList<String>(count);
+        for (var i = count; i > 0; i--) {
+            result.add(lines[Math.floorMod(next - i, lines.length)]);
+        }
+        return result;
+    }
+
+    public synchronized List<String> lines() {
+        return tail(size);
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(lines, null);
+        next = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.process;
+
+import org.slf4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * A process which is started and supervised by the bot itself.
+ * <p>
+ * Commands are written to the stdin of the process and the console output is captured in a {@link LineBuffer}.
+ */
+public class NativeProcess implements ServerProcess {
+    private static final Logger log = getLogger(NativeProcess.class);
+    private final String name;
+    private final ProcessLogs logs;
+    private final Duration stopTimeout;
+    private final LineBuffer console;
+    private final CompletableFuture<Void> exited = new CompletableFuture<>();
+    private ProcessHandle handle;
+    private BufferedWriter stdin;
+
+    public NativeProcess(String name, ProcessLogs logs, Duration stopTimeout, int consoleLines) {
+        this.name = name;
+        this.logs = logs;
+        this.stopTimeout = stopTimeout;
+        console = new LineBuffer(consoleLines);
+    }
+
+    /**
+     * Adopts an already running server process, which was not started by this bot instance.
+     * <p>
+     * The console of an adopted process can not be accessed. It can only be stopped.
+     *
+     * @param name        name of the process
+     * @param logs        process logs of the server
+     * @param stopTimeout time until the process gets killed after a stop request
+     * @param apiPort     api port which identifies the server process
+     * @return the adopted process
+     */
+    public static NativeProcess adopt(String name, ProcessLogs logs, Duration stopTimeout, int apiPort) {
+        var process = new NativeProcess(name, logs, stopTimeout, 1);
+        var marker = "-Djavalin.port=" + apiPort;
+        ProcessHandle.allProcesses()
+                .filter(handle -> handle.info().arguments().map(args -> Arrays.asList(args).contains(marker)).orElse(false))
+                .findFirst()
+                .ifPresentOrElse(process::attach, () -> {
+                    log.warn("Could not find process of {}. Assuming it is not running.", name);
+                    process.exited.complete(null);
+                });
+        return process;
+    }
+
+    @Override
+    public synchronized void start(Path directory, List<String> command) throws IOException {
+        var process = new ProcessBuilder()
+                .directory(directory.toFile())
+                .command(command)
+                .redirectErrorStream(true)
+                .start();
+        stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        attach(process.toHandle());
+        var logWriter = logs.writer("start");
+        Thread.ofVirtual().name("console-" + name).start(() -> pump(process, logWriter));
+    }
+
+    private void attach(ProcessHandle handle) {
+        this.handle = handle;
+        handle.onExit().whenComplete((res, err) -> {
+            log.info("Process of {} exited", name);
+            exited.complete(null);
+        });
+    }
+
+    private void pump(Process process, ProcessLogs.LogWriter logWriter) {
+        try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+             var writer = logWriter) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                console.add(line);
+                writer.line(line);
+                if (!reader.ready()) writer.flush();
+            }
+        } catch (IOException e) {
+            log.debug("Console of {} closed", name, e);
+        }
+    }
+
+    @Override
+    public synchronized void send(String command) throws IOException {
+        if (stdin == null) {
+            throw new IOException("Console of %s is not attached to this bot instance".formatted(name));
+        }
+        stdin.write(command);
+        stdin.newLine();
+        stdin.flush();
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> stop() {
+        var handle = this.handle;
+        if (handle == null || !handle.isAlive()) {
+            return exited;
+        }
+        try {
+            if (stdin != null) {
+                send("stop");
+            } else {
+                // Adopted processes can only be signalled. Paper shuts down gracefully on SIGTERM.
+                handle.destroy();
+            }
+        } catch (IOException e) {
+            log.warn("Could not send stop command to {}. Terminating process.", name, e);
+            handle.destroy();
+        }
+        CompletableFuture.delayedExecutor(stopTimeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (handle.isAlive()) {
+                log.warn("Process of {} did not stop in time. Killing it.", name);
+                handle.destroyForcibly();
+            }
+        });
+        return exited;
+    }
+
+    @Override
+    public CompletableFuture<Void> exited() {
+        return exited;
+    }
+
+    @Override
+    public List<String> console() {
+        return console.lines();
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.process;
+
+import de.chojo.gamejam.configuration.Configuration;
+import org.slf4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Rolling log files of the processes of a server.
+ * <p>
+ * Each type of process appends to its own file. Once a file exceeds the segment size it is rotated on the next request
+ * and compressed. Long-running writers use a {@link LogWriter}, which rotates while writing. Compressed segments are deleted once they exceed the retention age or size.
+ */
+public class ProcessLogs {
+    private static final Logger log = getLogger(ProcessLogs.class);
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS");
+    private static final Pattern ACTIVE = Pattern.compile("^[a-z]+\\.log$");
+    // Rotated segments may still be written by a process which was started before the rotation.
+    private static final Duration SETTLE_TIME = Duration.ofMinutes(1);
+    private static final int MB = 1024 * 1024;
+    private final Path directory;
+    private final Configuration configuration;
+    private boolean maintained;
+
+    public ProcessLogs(Path directory, Configuration configuration) {
+        this.directory = directory;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Get the log file for a type of process. The file has to be opened in append mode.
+     *
+     * @param type type of the process
+     * @return log file
+     */
+    public synchronized File file(String type) {
+        var file = directory.resolve(type + ".log");
+        try {
+            Files.createDirectories(directory);
+            if (Files.exists(file) && Files.size(file) >= (long) configuration.serverManagement().processLogSegmentSize() * MB) {
+                Files.move(file, directory.resolve("%s_%s.log".formatted(type, FORMATTER.format(LocalDateTime.now()))));
+                maintained = false;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!maintained) {
+            maintained = true;
+            CompletableFuture.runAsync(this::maintain);
+        }
+        return file.toFile();
+    }
+
+    /**
+     * Opens a writer for a type of process, which rotates the file once it exceeds the segment size.
+     *
+     * @param type type of the process
+     * @return log writer
+     * @throws IOException if the file could not be opened
+     */
+    public LogWriter writer(String type) throws IOException {
+        return new LogWriter(type);
+    }
+
+    /**
+     * Compresses rotated segments and deletes segments exceeding the retention.
+     */
+    public synchronized void maintain() {
+        if (!Files.isDirectory(directory)) return;
+        try {
+            for (var segment : segments(".log")) {
+                if (ACTIVE.matcher(segment.getFileName().toString()).matches()) continue;
+                if (Files.getLastModifiedTime(segment).toInstant().isAfter(Instant.now().minus(SETTLE_TIME))) {
+                    // Still in use. Compressed on the next run.
+                    maintained = false;
+                    continue;
+                }
+                compress(segment);
+            }
+            retain();
+        } catch (IOException e) {
+            log.warn("Could not maintain process logs in {}", directory, e);
+        }
+    }
+
+    private void compress(Path segment) throws IOException {
+        var target = segment.resolveSibling(segment.getFileName() + ".gz");
+        var modified = Files.getLastModifiedTime(segment);
+        try (var out = new GZIPOutputStream(Files.newOutputStream(target))) {
+            Files.copy(segment, out);
+        }
+        Files.setLastModifiedTime(target, modified);
+        Files.delete(segment);
+    }
+
+    private void retain() throws IOException {
+        var management = configuration.serverManagement();
+        var maxAge = FileTime.from(Instant.now().minus(Duration.ofDays(management.processLogRetentionDays())));
+        var budget = (long) management.processLogRetentionSize() * MB;
+        var segments = segments(".log.gz");
+        // Newest first, so the oldest segments exceed the budget.
+        segments.sort(Comparator.comparing(this::modified).reversed());
+        long size = 0;
+        for (var segment : segments) {
+            size += Files.size(segment);
+            if (size > budget || modified(segment).compareTo(maxAge) < 0) {
+                Files.delete(segment);
+            }
+        }
+    }
+
+    private List<Path> segments(String suffix) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(suffix))
+                        .filter(Files::isRegularFile)
+                        .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private FileTime modified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /**
+     * Writes lines into the log of a process and rotates the file while writing.
+     */
+    public final class LogWriter implements Closeable {
+        private final String type;
+        private BufferedWriter writer;
+        private long size;
+
+        private LogWriter(String type) throws IOException {
+            this.type = type;
+            open();
+        }
+
+        public void line(String line) throws IOException {
+            if (size >= (long) configuration.serverManagement().processLogSegmentSize() * MB) {
+                writer.close();
+                open();
+            }
+            writer.write(line);
+            writer.newLine();
+            // Close enough for the segment size. Characters outside of ascii are rare in logs.
+            size += line.length() + 1;
+        }
+
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        private void open() throws IOException {
+            // Rotates the current file if it reached the segment size.
+            var file = file(type).toPath();
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            size = Files.size(file);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.process;
+
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * A process which runs detached in a screen session.
+ * <p>
+ * Screen sessions survive restarts of the bot, but every interaction requires a fork of screen.
+ */
+public class ScreenProcess implements ServerProcess {
+    private static final Logger log = getLogger(ScreenProcess.class);
+    private final String screenName;
+    private final Path directory;
+    private final Function<String, File> logFiles;
+    private final CompletableFuture<Void> exited = new CompletableFuture<>();
+
+    public ScreenProcess(String screenName, Path directory, Function<String, File> logFiles) {
+        this.screenName = screenName;
+        this.directory = directory;
+        this.logFiles = logFiles;
+    }
+
+    @Override
+    public void start(Path directory, List<String> command) throws IOException {
+        var screenCommand = new ArrayList<String>();
+        screenCommand.add("screen");
+        screenCommand.add("-dmS");
+        screenCommand.add(screenName);
+        screenCommand.addAll(command);
+        new ProcessBuilder()
+                .directory(directory.toFile())
+                .command(screenCommand)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(logFiles.apply("start")))
+                .start();
+    }
+
+    @Override
+    public void send(String command) throws IOException {
+        new ProcessBuilder()
+                .directory(directory.toFile())
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(logFiles.apply("send")))
+                .command(List.of(
+                        "screen",
+                        "-S",
+                        screenName,
+                        "-p",
+                        "0",
+                        "-X",
+                        "stuff",
+                        "%s^M".formatted(command)
+                ))
+                .start();
+    }
+
+    @Override
+    public CompletableFuture<Void> stop() {
+        try {
+            new ProcessBuilder()
+                    .directory(new File("").toPath().toAbsolutePath().toFile())
+                    .command("./wait.sh", screenName)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(logFiles.apply("stop")))
+                    .start()
+                    .onExit()
+                    .whenComplete((res, err) -> {
+                        if (err != null) {
+                            exited.completeExceptionally(err);
+                        } else {
+                            exited.complete(null);
+                        }
+                    });
+            send("stop");
+        } catch (IOException e) {
+            log.error("Failed to stop screen {}", screenName, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        return exited;
+    }
+
+    @Override
+    public CompletableFuture<Void> exited() {
+        return exited;
+    }
+
+    @Override
+    public List<String> console() {
+        return List.of();
+    }
+}
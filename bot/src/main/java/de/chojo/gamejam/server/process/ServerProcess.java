@@ -0,0 +1,57 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.process;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The process of a team server.
+ */
+public interface ServerProcess {
+    /**
+     * Starts the process.
+     *
+     * @param directory working directory of the process
+     * @param command   command to execute
+     * @throws IOException if the process could not be started
+     */
+    void start(Path directory, List<String> command) throws IOException;
+
+    /**
+     * Sends a command to the console of the process.
+     *
+     * @param command command without line break
+     * @throws IOException if the command could not be sent
+     */
+    void send(String command) throws IOException;
+
+    /**
+     * Requests the process to stop.
+     *
+     * @return future which completes once the process has exited
+     */
+    CompletableFuture<Void> stop();
+
+    /**
+     * A future which completes once the process has exited.
+     * <p>
+     * Backends which can not observe the process only complete this future after a {@link #stop()}.
+     *
+     * @return exit future
+     */
+    CompletableFuture<Void> exited();
+
+    /**
+     * The latest lines written to the console of the process.
+     *
+     * @return console lines, oldest first. Empty if the backend does not capture the console.
+     */
+    List<String> console();
+}
@@ -0,0 +1,133 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.resources;
+
+import de.chojo.gamejam.configuration.Configuration;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Keeps track of the memory committed to team servers and decides whether another server may be started.
+ * <p>
+ * Depending on the configuration, servers exceeding the limit are either rejected or queued until enough memory
+ * is released.
+ */
+public class AdmissionController {
+    private static final Logger log = getLogger(AdmissionController.class);
+    private final Configuration configuration;
+    private final Map<Integer, Integer> committed = new HashMap<>();
+    private final Map<Integer, Waiting> queue = new LinkedHashMap<>();
+
+    public AdmissionController(Configuration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Commits the memory for a server if the budget allows it.
+     *
+     * @param id     id of the team
+     * @param memory memory of the server in MB
+     * @return true if the memory was committed or is already committed for this team
+     */
+    public synchronized boolean tryAdmit(int id, int memory) {
+        if (committed.containsKey(id)) return true;
+        if (committed() + memory > limit()) return false;
+        committed.put(id, memory);
+        return true;
+    }
+
+    /**
+     * Commits the memory for a server. If the budget does not allow it, the request is queued until enough memory is
+     * released or rejected, depending on the configured admission mode.
+     *
+     * @param id     id of the team
+     * @param memory memory of the server in MB
+     * @return future which completes with true once the memory is committed or false if the request was rejected
+     */
+    public synchronized CompletableFuture<Boolean> admit(int id, int memory) {
+        if (tryAdmit(id, memory)) return CompletableFuture.completedFuture(true);
+        if (!configuration.serverManagement().queueAdmission() || memory > limit()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        var waiting = queue.computeIfAbsent(id, key -> new Waiting(memory, new CompletableFuture<>()));
+        log.info("Queued server of team {}. {} servers are waiting for memory.", id, queue.size());
+        return waiting.future();
+    }
+
+    /**
+     * Commits the memory of a server which is already running, regardless of the budget.
+     *
+     * @param id     id of the team
+     * @param memory memory of the server in MB
+     */
+    public synchronized void reserve(int id, int memory) {
+        committed.put(id, memory);
+    }
+
+    /**
+     * Releases the memory of all servers. Queued servers stay queued.
+     */
+    public synchronized void reset() {
+        committed.clear();
+    }
+
+    /**
+     * Releases the memory of a server and admits queued servers.
+     *
+     * @param id id of the team
+     */
+    public void release(int id) {
+        var admitted = new ArrayList<CompletableFuture<Boolean>>();
+        synchronized (this) {
+            committed.remove(id);
+            var iterator = queue.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                // Keep the order. A large server must not starve behind smaller ones.
+                if (!tryAdmit(entry.getKey(), entry.getValue().memory())) break;
+                iterator.remove();
+                admitted.add(entry.getValue().future());
+            }
+        }
+        // Complete outside the lock, since the dependent actions start servers.
+        admitted.forEach(future -> future.complete(true));
+    }
+
+    /**
+     * The current memory budget.
+     *
+     * @return memory budget
+     */
+    public synchronized MemoryBudget budget() {
+        return new MemoryBudget(limit(), committed(), committed.size(), queue.size());
+    }
+
+    private long committed() {
+        return committed.values().stream().mapToLong(Integer::longValue).sum();
+    }
+
+    private long limit() {
+        var management = configuration.serverManagement();
+        long limit = management.memoryLimit();
+        if (limit <= 0) {
+            var host = HostMemory.limit();
+            if (host.isEmpty()) return Long.MAX_VALUE;
+            limit = host.getAsLong();
+        }
+        return limit - management.memoryReserve();
+    }
+
+    private record Waiting(int memory, CompletableFuture<Boolean> future) {
+    }
+}
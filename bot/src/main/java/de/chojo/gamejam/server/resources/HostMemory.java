@@ -0,0 +1,93 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.resources;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalLong;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Reads the memory state of the host.
+ */
+public final class HostMemory {
+    private static final Logger log = getLogger(HostMemory.class);
+    private static final Path MEMINFO = Path.of("/proc/meminfo");
+    private static final Path CGROUP_V2_LIMIT = Path.of("/sys/fs/cgroup/memory.max");
+    private static final Path CGROUP_V1_LIMIT = Path.of("/sys/fs/cgroup/memory/memory.limit_in_bytes");
+    // cgroup v1 reports a page aligned Long.MAX_VALUE when no limit is set
+    private static final long CGROUP_V1_UNLIMITED = Long.MAX_VALUE / 2;
+
+    private HostMemory() {
+        throw new UnsupportedOperationException("This is a utility class.");
+    }
+
+    /**
+     * The memory available for new processes without swapping.
+     *
+     * @return available memory in MB or empty if the host does not provide this information
+     */
+    public static OptionalLong available() {
+        return meminfo("MemAvailable");
+    }
+
+    /**
+     * The total memory of the host.
+     *
+     * @return total memory in MB or empty if the host does not provide this information
+     */
+    public static OptionalLong total() {
+        return meminfo("MemTotal");
+    }
+
+    /**
+     * The memory limit of the bot and its child processes. This is the cgroup limit if one is set, otherwise the total memory of the host.
+     *
+     * @return memory limit in MB or empty if the host does not provide this information
+     */
+    public static OptionalLong limit() {
+        var total = total();
+        var cgroup = cgroupLimit();
+        if (cgroup.isPresent() && (total.isEmpty() || cgroup.getAsLong() < total.getAsLong())) return cgroup;
+        return total;
+    }
+
+    private static OptionalLong cgroupLimit() {
+        for (var file : new Path[]{CGROUP_V2_LIMIT, CGROUP_V1_LIMIT}) {
+            if (!Files.isReadable(file)) continue;
+            try {
+                var value = Files.readString(file).trim();
+                if ("max".equals(value)) return OptionalLong.empty();
+                var bytes = Long.parseLong(value);
+                if (bytes >= CGROUP_V1_UNLIMITED) return OptionalLong.empty();
+                return OptionalLong.of(bytes / 1024 / 1024);
+            } catch (IOException | NumberFormatException e) {
+                log.warn("Could not read {}", file, e);
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    private static OptionalLong meminfo(String key) {
+        if (!Files.isReadable(MEMINFO)) return OptionalLong.empty();
+        try (var lines = Files.lines(MEMINFO)) {
+            return lines.filter(line -> line.startsWith(key + ":"))
+                    .map(line -> line.substring(key.length() + 1).trim().split("\\s+")[0])
+                    .mapToLong(Long::parseLong)
+                    // values are in kB
+                    .map(kb -> kb / 1024)
+                    .findFirst();
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Could not read {}", MEMINFO, e);
+            return OptionalLong.empty();
+        }
+    }
+}
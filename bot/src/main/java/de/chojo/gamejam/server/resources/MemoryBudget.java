@@ -0,0 +1,26 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.resources;
+
+/**
+ * The memory budget for team servers.
+ *
+ * @param limit     memory in MB which can be committed to servers
+ * @param committed memory in MB committed to running servers
+ * @param servers   amount of servers with committed memory
+ * @param queued    amount of servers waiting for memory
+ */
+public record MemoryBudget(long limit, long committed, int servers, int queued) {
+    /**
+     * Memory which can still be committed.
+     *
+     * @return free memory in MB
+     */
+    public long free() {
+        return Math.max(0, limit - committed);
+    }
+}
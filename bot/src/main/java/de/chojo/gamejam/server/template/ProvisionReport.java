@@ -0,0 +1,26 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.template;
+
+/**
+ * Summary of a template provisioning.
+ *
+ * @param copiedFiles    amount of files which were copied
+ * @param copiedBytes    bytes written by copying files
+ * @param linkedFiles    amount of files which were hard linked
+ * @param linkedBytes    bytes shared with the template via hard links
+ * @param symLinks       amount of created symbolic links
+ * @param unchangedFiles amount of files which were skipped since they did not change since the last provisioning
+ */
+public record ProvisionReport(int copiedFiles, long copiedBytes, int linkedFiles, long linkedBytes, int symLinks,
+                              int unchangedFiles) {
+    @Override
+    public String toString() {
+        return "copied %d files (%d MB), linked %d files (%d MB), %d symlinks, %d unchanged".formatted(
+                copiedFiles, copiedBytes / 1024 / 1024, linkedFiles, linkedBytes / 1024 / 1024, symLinks, unchangedFiles);
+    }
+}
@@ -0,0 +1,18 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.template;
+
+/**
+ * State of a file in the server template.
+ *
+ * @param path     path relative to the template directory
+ * @param size     size in bytes
+ * @param modified last modification time in milliseconds
+ * @param hash     sha-256 hash of the content
+ */
+public record TemplateFile(String path, long size, long modified, String hash) {
+}
@@ -0,0 +1,84 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.template;
+
+import de.chojo.gamejam.util.Hashes;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Keeps track of the content hashes of the template files.
+ * <p>
+ * A file is only hashed again when its size or modification time changed since the last scan.
+ */
+public class TemplateManifest {
+    private static final Logger log = getLogger(TemplateManifest.class);
+    private final Map<String, TemplateFile> files = new HashMap<>();
+    private Path sourceDir;
+
+    /**
+     * Scans the template directory.
+     *
+     * @param sourceDir template directory
+     * @param excluded  paths which should not be hashed. Excluded directories are skipped entirely.
+     * @return the current files of the template mapped to their relative path
+     * @throws IOException if the template could not be read
+     */
+    public synchronized Map<String, TemplateFile> scan(Path sourceDir, Set<Path> excluded) throws IOException {
+        if (!sourceDir.equals(this.sourceDir)) {
+            files.clear();
+            this.sourceDir = sourceDir;
+        }
+        var current = new HashMap<String, TemplateFile>();
+        var hashed = new int[1];
+        Files.walkFileTree(sourceDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return excluded.contains(dir) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (excluded.contains(file)) return FileVisitResult.CONTINUE;
+                var path = key(sourceDir.relativize(file));
+                var modified = attrs.lastModifiedTime().toMillis();
+                var known = files.get(path);
+                if (known == null || known.size() != attrs.size() || known.modified() != modified) {
+                    known = new TemplateFile(path, attrs.size(), modified, Hashes.sha256(file));
+                    hashed[0]++;
+                }
+                current.put(path, known);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        files.clear();
+        files.putAll(current);
+        log.debug("Scanned {} template files. Hashed {} changed files.", current.size(), hashed[0]);
+        return Map.copyOf(current);
+    }
+
+    /**
+     * Key of a path relative to the template or server directory.
+     *
+     * @param relative relative path
+     * @return key with unix separators
+     */
+    public static String key(Path relative) {
+        return relative.toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.template;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import de.chojo.gamejam.configuration.Configuration;
+import de.chojo.gamejam.configuration.elements.ServerTemplate;
+import de.chojo.gamejam.util.Mapper;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Writes the files of the server template into a server directory.
+ * <p>
+ * Files configured as symlinks are linked symbolically. Immutable files are hard linked, so every server shares the
+ * same data on disk. All other files are copied, since the server is allowed to modify them.
+ * <p>
+ * The hashes of the applied template files are stored in the server directory. Files which did not change in the
+ * template since they were applied are skipped.
+ */
+public class TemplateProvisioner {
+    private static final Logger log = getLogger(TemplateProvisioner.class);
+    private static final String APPLIED_FILE = ".template.json";
+    private static final TypeReference<Map<String, String>> APPLIED_TYPE = new TypeReference<>() {
+    };
+    private final Configuration configuration;
+    private final TemplateManifest manifest = new TemplateManifest();
+
+    public TemplateProvisioner(Configuration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Scans the template for changed files.
+     *
+     * @return the current template files
+     * @throws IOException if the template could not be read
+     */
+    public Map<String, TemplateFile> scan() throws IOException {
+        var sourceDir = sourceDir();
+        return manifest.scan(sourceDir, symlinks(sourceDir));
+    }
+
+    /**
+     * Provisions the current template into the server directory.
+     *
+     * @param serverDir server directory
+     * @return report of the provisioning
+     * @throws IOException if a file could not be written
+     */
+    public ProvisionReport provision(Path serverDir) throws IOException {
+        return provision(serverDir, scan());
+    }
+
+    /**
+     * Provisions the template into the server directory. Existing files will be replaced when they changed in the template.
+     *
+     * @param serverDir server directory
+     * @param files     template files retrieved via {@link #scan()}
+     * @return report of the provisioning
+     * @throws IOException if a file could not be written
+     */
+    public ProvisionReport provision(Path serverDir, Map<String, TemplateFile> files) throws IOException {
+        Files.createDirectories(serverDir);
+        var template = configuration.serverTemplate();
+        var sourceDir = sourceDir();
+        var symlinks = symlinks(sourceDir);
+        var immutable = matchers(template.immutable());
+        var previous = readApplied(serverDir);
+        var applied = new HashMap<String, String>();
+        var report = new Report();
+
+        Files.walkFileTree(sourceDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (dir.equals(sourceDir)) return FileVisitResult.CONTINUE;
+                var serverTarget = serverDir.resolve(sourceDir.relativize(dir));
+                if (symlinks.contains(dir)) {
+                    symlink(dir, serverTarget);
+                    report.symLinks++;
+                    // Never write into the linked template directory
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Files.createDirectories(serverTarget);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                var relative = sourceDir.relativize(file);
+                var serverTarget = serverDir.resolve(relative);
+                if (symlinks.contains(file)) {
+                    symlink(file, serverTarget);
+                    report.symLinks++;
+                    return FileVisitResult.CONTINUE;
+                }
+
+                var state = files.get(TemplateManifest.key(relative));
+                if (state != null) {
+                    applied.put(state.path(), state.hash());
+                    if (state.hash().equals(previous.get(state.path())) && Files.exists(serverTarget, LinkOption.NOFOLLOW_LINKS)) {
+                        report.unchangedFiles++;
+                        return FileVisitResult.CONTINUE;
+                    }
+                }
+
+                if (template.hardLinks() && matches(immutable, relative) && link(file, serverTarget)) {
+                    report.linkedFiles++;
+                    report.linkedBytes += attrs.size();
+                } else {
+                    Files.copy(file, serverTarget, StandardCopyOption.REPLACE_EXISTING);
+                    report.copiedFiles++;
+                    report.copiedBytes += attrs.size();
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        writeApplied(serverDir, applied);
+        return report.build();
+    }
+
+    private void symlink(Path source, Path serverTarget) throws IOException {
+        var link = source.toAbsolutePath();
+        if (Files.isSymbolicLink(serverTarget) && Files.readSymbolicLink(serverTarget).equals(link)) return;
+        // Not really required since the current and new symlink are probably equal, but the creation will fail otherwise.
+        if (Files.deleteIfExists(serverTarget)) {
+            log.debug("Deleted old version of file {}", serverTarget);
+        }
+        Files.createSymbolicLink(serverTarget, link);
+    }
+
+    /**
+     * Hard links the source file to the target.
+     *
+     * @return true if the file was linked. False if the file system does not support the link and the file needs to be copied.
+     */
+    private boolean link(Path source, Path serverTarget) throws IOException {
+        if (Files.exists(serverTarget, LinkOption.NOFOLLOW_LINKS)) {
+            if (Files.isSameFile(source, serverTarget)) return true;
+            Files.delete(serverTarget);
+        }
+        try {
+            Files.createLink(serverTarget, source);
+            return true;
+        } catch (UnsupportedOperationException | IOException e) {
+            // Links across file systems are not possible.
+            log.debug("Could not link {}. Copying instead.", source, e);
+            return false;
+        }
+    }
+
+    private Map<String, String> readApplied(Path serverDir) {
+        var file = serverDir.resolve(APPLIED_FILE);
+        if (!Files.exists(file)) return Map.of();
+        try {
+            return Mapper.MAPPER.readValue(file.toFile(), APPLIED_TYPE);
+        } catch (IOException e) {
+            log.warn("Could not read applied template of {}. Applying all files.", serverDir, e);
+            return Map.of();
+        }
+    }
+
+    private void writeApplied(Path serverDir, Map<String, String> applied) throws IOException {
+        var file = serverDir.resolve(APPLIED_FILE);
+        var temp = serverDir.resolve(APPLIED_FILE + ".tmp");
+        Mapper.MAPPER.writeValue(temp.toFile(), applied);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Set<Path> symlinks(Path sourceDir) {
+        return configuration.serverTemplate().symLinks().stream()
+                .map(sourceDir::resolve)
+                .collect(Collectors.toSet());
+    }
+
+    private Path sourceDir() {
+        return Path.of(configuration.serverTemplate().templateDir());
+    }
+
+    private static List<PathMatcher> matchers(List<String> patterns) {
+        var fileSystem = FileSystems.getDefault();
+        return patterns.stream().map(pattern -> fileSystem.getPathMatcher("glob:" + pattern)).toList();
+    }
+
+    private static boolean matches(List<PathMatcher> matchers, Path relative) {
+        for (var matcher : matchers) {
+            if (matcher.matches(relative)) return true;
+        }
+        return false;
+    }
+
+    private static class Report {
+        private int copiedFiles;
+        private long copiedBytes;
+        private int linkedFiles;
+        private long linkedBytes;
+        private int symLinks;
+        private int unchangedFiles;
+
+        private ProvisionReport build() {
+            return new ProvisionReport(copiedFiles, copiedBytes, linkedFiles, linkedBytes, symLinks, unchangedFiles);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.world;
+
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * A zipped world.
+ * <p>
+ * The world root is located via the central directory of the zip. Entries are streamed directly into the target
+ * directory without extracting the archive first.
+ */
+public class WorldArchive implements AutoCloseable {
+    private static final Logger log = getLogger(WorldArchive.class);
+    private static final String REGION = "region/";
+    private final ZipFile zip;
+
+    public WorldArchive(Path archive) {
+        zip = new ZipFile(archive.toFile());
+    }
+
+    /**
+     * Finds the root directory of the world inside the archive. The root is the directory containing the shallowest region directory.
+     *
+     * @return the root prefix with a trailing slash, an empty string when the world is the root of the archive or an empty optional if the archive contains no world.
+     * @throws IOException if the central directory could not be read
+     */
+    public Optional<String> root() throws IOException {
+        return root(zip.getFileHeaders().stream().map(FileHeader::getFileName).toList());
+    }
+
+    /**
+     * Finds the root directory of the world based on the entry names.
+     *
+     * @param entries names of the zip entries
+     * @return the root prefix or an empty optional if the entries contain no world.
+     */
+    public static Optional<String> root(List<String> entries) {
+        String root = null;
+        for (var entry : entries) {
+            var name = entry.replace('\\', '/');
+            int index;
+            if (name.startsWith(REGION)) {
+                index = 0;
+            } else {
+                index = name.indexOf("/" + REGION);
+                if (index == -1) continue;
+                index++;
+            }
+            var prefix = name.substring(0, index);
+            if (root == null || depth(prefix) < depth(root)) root = prefix;
+        }
+        return Optional.ofNullable(root);
+    }
+
+    /**
+     * Streams all entries below the world root into the target directory. Entries outside the root and session locks are skipped.
+     *
+     * @param root   root prefix retrieved via {@link #root()}
+     * @param target target directory. Will be created.
+     * @return amount of extracted bytes
+     * @throws IOException if an entry could not be extracted or points outside the target directory
+     */
+    public long extract(String root, Path target) throws IOException {
+        var normalizedTarget = target.toAbsolutePath().normalize();
+        Files.createDirectories(normalizedTarget);
+        long bytes = 0;
+        for (var header : zip.getFileHeaders()) {
+            var name = header.getFileName().replace('\\', '/');
+            if (!name.startsWith(root)) continue;
+            var relative = name.substring(root.length());
+            if (relative.isEmpty() || "session.lock".equals(relative)) continue;
+
+            var file = normalizedTarget.resolve(relative).normalize();
+            if (!file.startsWith(normalizedTarget)) {
+                throw new IOException("Entry %s is outside of the target directory".formatted(name));
+            }
+            if (header.isDirectory()) {
+                Files.createDirectories(file);
+                continue;
+            }
+            Files.createDirectories(file.getParent());
+            try (var in = zip.getInputStream(header)) {
+                bytes += Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        log.debug("Extracted {} bytes into {}", bytes, target);
+        return bytes;
+    }
+
+    private static int depth(String prefix) {
+        return (int) prefix.chars().filter(c -> c == '/').count();
+    }
+
+    @Override
+    public void close() throws IOException {
+        zip.close();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 hashes of files and streams.
+ */
+public final class Hashes {
+    private Hashes() {
+        throw new UnsupportedOperationException("This is a utility class.");
+    }
+
+    /**
+     * Computes the sha-256 hash of a file.
+     *
+     * @param file file
+     * @return hex encoded hash
+     * @throws IOException if the file could not be read
+     */
+    public static String sha256(Path file) throws IOException {
+        var digest = sha256();
+        try (var in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return hex(digest);
+    }
+
+    /**
+     * Creates a new sha-256 digest.
+     *
+     * @return digest
+     */
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Completes the digest.
+     *
+     * @param digest digest
+     * @return hex encoded hash
+     */
+    public static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
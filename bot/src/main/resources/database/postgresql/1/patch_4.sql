@@ -0,0 +1,79 @@
+-- Publishes changes of cached tables on the jam_changes channel.
+-- The payload contains the schema, the table, the operation and the guild, jam and team the row belongs to.
+CREATE OR REPLACE FUNCTION gamejam.notify_change() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    _row     JSONB;
+    _team_id INTEGER;
+    _jam_id  INTEGER;
+    _guild   BIGINT;
+BEGIN
+    IF tg_op = 'DELETE' THEN
+        _row = to_jsonb(old);
+    ELSE
+        _row = to_jsonb(new);
+    END IF;
+
+    IF tg_table_name = 'team' THEN
+        _team_id = (_row ->> 'id')::INTEGER;
+        _jam_id = (_row ->> 'jam_id')::INTEGER;
+    ELSIF tg_table_name = 'jam_state' THEN
+        _jam_id = (_row ->> 'jam_id')::INTEGER;
+    ELSE
+        _team_id = (_row ->> 'team_id')::INTEGER;
+        SELECT jam_id INTO _jam_id FROM gamejam.team WHERE id = _team_id;
+    END IF;
+
+    SELECT guild_id INTO _guild FROM gamejam.jam WHERE id = _jam_id;
+
+    -- Rows deleted together with their jam do not need to be published.
+    IF _guild IS NULL THEN
+        RETURN NULL;
+    END IF;
+
+    PERFORM pg_notify('jam_changes', json_build_object(
+            'schema', tg_table_schema,
+            'table', tg_table_name,
+            'operation', tg_op,
+            'guild', _guild,
+            'jam', _jam_id,
+            'team', _team_id)::TEXT);
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS notify_change ON gamejam.team;
+CREATE TRIGGER notify_change
+    AFTER INSERT OR DELETE
+    ON gamejam.team
+    FOR EACH ROW
+EXECUTE FUNCTION gamejam.notify_change();
+
+DROP TRIGGER IF EXISTS notify_change ON gamejam.team_meta;
+CREATE TRIGGER notify_change
+    AFTER INSERT OR UPDATE OR DELETE
+    ON gamejam.team_meta
+    FOR EACH ROW
+EXECUTE FUNCTION gamejam.notify_change();
+
+DROP TRIGGER IF EXISTS notify_change ON gamejam.team_member;
+CREATE TRIGGER notify_change
+    AFTER INSERT OR UPDATE OR DELETE
+    ON gamejam.team_member
+    FOR EACH ROW
+EXECUTE FUNCTION gamejam.notify_change();
+
+DROP TRIGGER IF EXISTS notify_change ON gamejam.jam_state;
+CREATE TRIGGER notify_change
+    AFTER INSERT OR UPDATE OR DELETE
+    ON gamejam.jam_state
+    FOR EACH ROW
+EXECUTE FUNCTION gamejam.notify_change();
+
+DROP TRIGGER IF EXISTS notify_change ON gamejam.vote;
+CREATE TRIGGER notify_change
+    AFTER INSERT OR UPDATE OR DELETE
+    ON gamejam.vote
+    FOR EACH ROW
+EXECUTE FUNCTION gamejam.notify_change();
@@ -0,0 +1,52 @@
+-- Vote sums per team, maintained by trigger instead of aggregating all votes on every read.
+CREATE TABLE IF NOT EXISTS gamejam.team_score
+(
+    team_id INTEGER          NOT NULL
+        CONSTRAINT team_score_pk
+            PRIMARY KEY
+        CONSTRAINT team_score_team_id_fk
+            REFERENCES gamejam.team
+            ON DELETE CASCADE,
+    jam_id  INTEGER          NOT NULL,
+    points  BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS team_score_jam_id_points_index
+    ON gamejam.team_score (jam_id, points DESC);
+
+INSERT INTO gamejam.team_score(team_id, jam_id, points)
+SELECT v.team_id, t.jam_id, SUM(v.points)
+FROM gamejam.vote v
+         JOIN gamejam.team t ON t.id = v.team_id
+GROUP BY v.team_id, t.jam_id
+ON CONFLICT (team_id) DO UPDATE SET points = excluded.points;
+
+CREATE OR REPLACE FUNCTION gamejam.update_team_score() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF tg_op IN ('UPDATE', 'DELETE') THEN
+        UPDATE gamejam.team_score SET points = points - old.points WHERE team_id = old.team_id;
+    END IF;
+    IF tg_op IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO gamejam.team_score(team_id, jam_id, points)
+        SELECT new.team_id, t.jam_id, new.points
+        FROM gamejam.team t
+        WHERE t.id = new.team_id
+        ON CONFLICT (team_id) DO UPDATE SET points = gamejam.team_score.points + excluded.points;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS update_team_score ON gamejam.vote;
+CREATE TRIGGER update_team_score
+    AFTER INSERT OR UPDATE OR DELETE
+    ON gamejam.vote
+    FOR EACH ROW
+EXECUTE FUNCTION gamejam.update_team_score();
+
+DROP VIEW IF EXISTS gamejam.team_ranking;
+CREATE VIEW gamejam.team_ranking AS
+SELECT ROW_NUMBER() OVER (PARTITION BY jam_id ORDER BY points DESC, team_id) AS rank, team_id, points, jam_id
+FROM gamejam.team_score;
@@ -0,0 +1,66 @@
+-- Validates and casts a vote in a single statement.
+-- The budget of a voter is one point per team of the jam.
+-- Concurrent votes of the same voter are serialized by locking the registration of the voter.
+CREATE OR REPLACE FUNCTION gamejam.cast_vote(_team_id INTEGER, _voter_id BIGINT, _points INTEGER)
+    RETURNS TABLE
+            (
+                status      TEXT,
+                remaining   INTEGER,
+                team_points BIGINT
+            )
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    _jam_id  INTEGER;
+    _budget  INTEGER;
+    _given   INTEGER;
+    _current INTEGER;
+BEGIN
+    SELECT jam_id INTO _jam_id FROM gamejam.team WHERE id = _team_id;
+    IF _jam_id IS NULL THEN
+        RETURN QUERY SELECT 'UNKNOWN_TEAM', 0, 0::BIGINT;
+        RETURN;
+    END IF;
+
+    IF NOT coalesce((SELECT voting FROM gamejam.jam_state WHERE jam_id = _jam_id), FALSE) THEN
+        RETURN QUERY SELECT 'NOT_VOTING', 0, 0::BIGINT;
+        RETURN;
+    END IF;
+
+    PERFORM FROM gamejam.jam_registrations WHERE jam_id = _jam_id AND user_id = _voter_id FOR UPDATE;
+    IF NOT found THEN
+        RETURN QUERY SELECT 'NOT_REGISTERED', 0, 0::BIGINT;
+        RETURN;
+    END IF;
+
+    IF exists(SELECT 1 FROM gamejam.team_member WHERE team_id = _team_id AND user_id = _voter_id) THEN
+        RETURN QUERY SELECT 'OWN_TEAM', 0, 0::BIGINT;
+        RETURN;
+    END IF;
+
+    SELECT count(1) INTO _budget FROM gamejam.team WHERE jam_id = _jam_id;
+
+    SELECT coalesce(sum(v.points), 0),
+           coalesce(sum(v.points) FILTER (WHERE v.team_id = _team_id), 0)
+    INTO _given, _current
+    FROM gamejam.vote v
+             JOIN gamejam.team t ON t.id = v.team_id
+    WHERE t.jam_id = _jam_id
+      AND v.voter_id = _voter_id;
+
+    -- Lowering points is always allowed, even if the budget shrunk in the meantime.
+    IF _points > _current AND _given - _current + _points > _budget THEN
+        RETURN QUERY SELECT 'BUDGET_EXCEEDED', _budget - _given, 0::BIGINT;
+        RETURN;
+    END IF;
+
+    INSERT INTO gamejam.vote(team_id, voter_id, points)
+    VALUES (_team_id, _voter_id, _points)
+    ON CONFLICT (team_id, voter_id) DO UPDATE SET points = excluded.points;
+
+    RETURN QUERY SELECT 'VOTED',
+                        _budget - (_given - _current + _points),
+                        (SELECT s.points FROM gamejam.team_score s WHERE s.team_id = _team_id);
+END;
+$$;
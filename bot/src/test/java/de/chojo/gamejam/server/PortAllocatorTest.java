@@ -0,0 +1,57 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+class PortAllocatorTest {
+
+    @Test
+    void claim() {
+        var allocator = new PortAllocator(30001, 30003);
+        Assertions.assertEquals(30001, allocator.claim());
+        Assertions.assertEquals(30002, allocator.claim());
+        Assertions.assertEquals(30003, allocator.claim());
+        Assertions.assertThrows(IllegalStateException.class, allocator::claim);
+    }
+
+    @Test
+    void claimPort() {
+        var allocator = new PortAllocator(30001, 30100);
+        Assertions.assertTrue(allocator.claim(30070));
+        Assertions.assertFalse(allocator.claim(30070));
+        Assertions.assertFalse(allocator.claim(30101));
+        Assertions.assertTrue(allocator.claimed(30070));
+        Assertions.assertEquals(99, allocator.free());
+    }
+
+    @Test
+    void release() {
+        var allocator = new PortAllocator(30001, 30100);
+        var port = allocator.claim();
+        Assertions.assertTrue(allocator.release(port));
+        Assertions.assertFalse(allocator.release(port));
+        Assertions.assertEquals(100, allocator.free());
+        allocator.claim(30001);
+        allocator.reset();
+        Assertions.assertEquals(100, allocator.free());
+    }
+
+    @Test
+    void concurrentClaim() {
+        var allocator = new PortAllocator(30001, 30500);
+        Set<Integer> ports = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 500).parallel().forEach(i -> Assertions.assertTrue(ports.add(allocator.claim())));
+        Assertions.assertEquals(500, ports.size());
+        Assertions.assertEquals(0, allocator.free());
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.catalog;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class PrefixTrieTest {
+
+    @Test
+    void complete() {
+        var trie = new PrefixTrie<String>();
+        trie.put("WorldGuard", "wg");
+        trie.put("WorldEdit", "we");
+        trie.put("World", "w");
+        trie.put("Vault", "v");
+
+        Assertions.assertEquals(List.of("w", "we", "wg"), trie.complete("world", 10));
+        Assertions.assertEquals(List.of("we"), trie.complete("WORLDE", 10));
+        Assertions.assertEquals(List.of("v", "w", "we", "wg"), trie.complete("", 10));
+        Assertions.assertEquals(List.of(), trie.complete("x", 10));
+    }
+
+    @Test
+    void completeLimit() {
+        var trie = new PrefixTrie<String>();
+        trie.put("WorldGuard", "wg");
+        trie.put("WorldEdit", "we");
+        trie.put("World", "w");
+
+        Assertions.assertEquals(List.of("w", "we"), trie.complete("w", 2));
+        Assertions.assertEquals(List.of(), trie.complete("w", 0));
+    }
+
+    @Test
+    void duplicateKeys() {
+        var trie = new PrefixTrie<String>();
+        trie.put("Vault", "first");
+        trie.put("vault", "second");
+
+        Assertions.assertEquals(List.of("first", "second"), trie.complete("va", 10));
+    }
+}
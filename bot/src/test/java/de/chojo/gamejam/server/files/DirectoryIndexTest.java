@@ -0,0 +1,63 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.files;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+class DirectoryIndexTest {
+
+    @Test
+    void lookup(@TempDir Path root) throws IOException {
+        Files.createFile(root.resolve("Alpha.yml"));
+        Files.createFile(root.resolve("alpha.txt"));
+        Files.createDirectories(root.resolve("ALPS"));
+        Files.createFile(root.resolve("beta.yml"));
+        Files.createDirectories(root.resolve("config"));
+        Files.createFile(root.resolve("config/Config.yml"));
+
+        var watcher = new DirectoryWatcher();
+        var index = new DirectoryIndex(root, watcher);
+        try {
+            Assertions.assertEquals(List.of("alpha.txt", "Alpha.yml", "ALPS/"), index.lookup("al", false, 10));
+            Assertions.assertEquals(List.of("alpha.txt", "Alpha.yml", "ALPS/"), index.lookup("AL", false, 10));
+            Assertions.assertEquals(List.of("ALPS/"), index.lookup("al", true, 10));
+            Assertions.assertEquals(List.of("alpha.txt"), index.lookup("al", false, 1));
+            Assertions.assertEquals(List.of("config/Config.yml"), index.lookup("config/c", false, 10));
+            Assertions.assertEquals(List.of(), index.lookup("gamma", false, 10));
+            Assertions.assertEquals(List.of(), index.lookup("missing/", false, 10));
+        } finally {
+            index.close();
+            watcher.shutdown();
+        }
+    }
+
+    @Test
+    void lookupNamesDifferingInCase(@TempDir Path root) throws IOException {
+        Files.createFile(root.resolve("beta"));
+        Files.createFile(root.resolve("Beta"));
+        Files.createFile(root.resolve("betamax"));
+        Files.createFile(root.resolve("Bet"));
+
+        var watcher = new DirectoryWatcher();
+        var index = new DirectoryIndex(root, watcher);
+        try {
+            // The upper case prefix sorts before every name equal to it when ignoring case.
+            Assertions.assertEquals(List.of("Beta", "beta", "betamax"), index.lookup("beta", false, 10));
+            Assertions.assertEquals(List.of("Beta", "beta", "betamax"), index.lookup("BETA", false, 10));
+        } finally {
+            index.close();
+            watcher.shutdown();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.files;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+class DirectoryPurgerTest {
+
+    @Test
+    void purge(@TempDir Path root) throws IOException, ExecutionException, InterruptedException, TimeoutException {
+        var server = root.resolve("server");
+        Files.createDirectories(server.resolve("world/region"));
+        Files.createDirectories(server.resolve("plugins"));
+        Files.createFile(server.resolve("world/region/r.0.0.mca"));
+        Files.createFile(server.resolve("plugins/plugin.jar"));
+        Files.createFile(server.resolve("server.properties"));
+
+        var purger = new DirectoryPurger(root.resolve(".trash"), 2);
+        try {
+            var job = purger.purge(server);
+            Assertions.assertFalse(Files.exists(server));
+            job.completion().get(10, TimeUnit.SECONDS);
+            Assertions.assertTrue(job.success());
+            Assertions.assertEquals(7, job.deleted());
+            Assertions.assertFalse(Files.exists(job.trash()));
+        } finally {
+            purger.shutdown();
+        }
+    }
+
+    @Test
+    void purgeMissing(@TempDir Path root) throws IOException {
+        var purger = new DirectoryPurger(root.resolve(".trash"), 1);
+        try {
+            var job = purger.purge(root.resolve("missing"));
+            Assertions.assertTrue(job.completion().isDone());
+            Assertions.assertEquals(0, job.deleted());
+        } finally {
+            purger.shutdown();
+        }
+    }
+}
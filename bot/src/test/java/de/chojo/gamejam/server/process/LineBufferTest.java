@@ -0,0 +1,50 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.process;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class LineBufferTest {
+
+    @Test
+    void wraparound() {
+        var buffer = new LineBuffer(3);
+        buffer.add("a");
+        buffer.add("b");
+        Assertions.assertEquals(List.of("a", "b"), buffer.lines());
+        buffer.add("c");
+        buffer.add("d");
+        buffer.add("e");
+        Assertions.assertEquals(List.of("c", "d", "e"), buffer.lines());
+        Assertions.assertEquals(List.of("d", "e"), buffer.tail(2));
+        Assertions.assertEquals(List.of("c", "d", "e"), buffer.tail(10));
+        Assertions.assertEquals(List.of(), buffer.tail(-1));
+    }
+
+    @Test
+    void clear() {
+        var buffer = new LineBuffer(2);
+        buffer.add("a");
+        buffer.add("b");
+        buffer.add("c");
+        buffer.clear();
+        Assertions.assertEquals(List.of(), buffer.lines());
+        buffer.add("d");
+        Assertions.assertEquals(List.of("d"), buffer.lines());
+    }
+
+    @Test
+    void minimalCapacity() {
+        var buffer = new LineBuffer(0);
+        buffer.add("a");
+        buffer.add("b");
+        Assertions.assertEquals(List.of("b"), buffer.lines());
+    }
+}
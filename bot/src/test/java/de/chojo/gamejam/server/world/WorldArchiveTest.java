@@ -0,0 +1,49 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.gamejam.server.world;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+class WorldArchiveTest {
+
+    @Test
+    void rootOfArchive() {
+        var root = WorldArchive.root(List.of("level.dat", "region/", "region/r.0.0.mca"));
+        Assertions.assertEquals(Optional.of(""), root);
+    }
+
+    @Test
+    void nestedRoot() {
+        var root = WorldArchive.root(List.of("world/", "world/level.dat", "world/region/r.0.0.mca"));
+        Assertions.assertEquals(Optional.of("world/"), root);
+    }
+
+    @Test
+    void shallowestRoot() {
+        var root = WorldArchive.root(List.of(
+                "backup/old/region/r.0.0.mca",
+                "world/DIM-1/region/r.0.0.mca",
+                "world/region/r.0.0.mca"));
+        Assertions.assertEquals(Optional.of("world/"), root);
+    }
+
+    @Test
+    void windowsSeparators() {
+        var root = WorldArchive.root(List.of("world\\level.dat", "world\\region\\r.0.0.mca"));
+        Assertions.assertEquals(Optional.of("world/"), root);
+    }
+
+    @Test
+    void noWorld() {
+        Assertions.assertTrue(WorldArchive.root(List.of("world/level.dat", "world/myregion/r.0.0.mca")).isEmpty());
+        Assertions.assertTrue(WorldArchive.root(List.of()).isEmpty());
+    }
+}
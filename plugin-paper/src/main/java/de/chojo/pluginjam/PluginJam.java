@@ -7,6 +7,7 @@
 package de.chojo.pluginjam;
 
 import de.chojo.pluginjam.api.Api;
+import de.chojo.pluginjam.bot.RequestPusher;
 import de.chojo.pluginjam.greeting.Welcomer;
 import de.chojo.pluginjam.serverapi.ServerApi;
 import de.chojo.pluginjam.service.CommandBlocker;
@@ -47,6 +48,7 @@ public class PluginJam extends EldoPlugin implements Listener {
 
         api = Api.create(this, serverRequests);
         service = ReportService.create(this, executor);
+        RequestPusher.create(serverRequests);
         serverApi = new ServerApi(this, serverRequests);
 
         registerListener(new CommandBlocker(serverRequests, localizer), new Welcomer(this), new JoinService(this, serverRequests, localizer));
@@ -8,6 +8,7 @@ package de.chojo.pluginjam.api;
 
 import de.chojo.pluginjam.PluginJam;
 import de.chojo.pluginjam.api.routes.Configuration;
+import de.chojo.pluginjam.api.routes.Plugins;
 import de.chojo.pluginjam.api.routes.Requests;
 import de.chojo.pluginjam.api.routes.Stats;
 import de.chojo.pluginjam.service.ServerRequests;
@@ -25,12 +26,14 @@ public class Api {
     private final Configuration configuration;
     private final Stats stats;
     private final Requests requests;
+    private final Plugins plugins;
 
     private Api(Javalin javalin, Plugin plugin, ServerRequests serverRequests) {
         this.javalin = javalin;
         configuration = new Configuration(plugin);
         stats = new Stats(plugin);
         requests = new Requests(serverRequests);
+        plugins = new Plugins(plugin);
     }
 
     public static Api create(Plugin plugin, ServerRequests serverRequests) {
@@ -50,6 +53,7 @@ public class Api {
             path("v1", configuration::buildRoutes);
             path("v1", stats::buildRoutes);
             path("v1", requests::buildRoutes);
+            path("v1", plugins::buildRoutes);
         });
     }
 }
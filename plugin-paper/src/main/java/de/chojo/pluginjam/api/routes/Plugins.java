@@ -0,0 +1,64 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.pluginjam.api.routes;
+
+import de.chojo.pluginjam.service.PluginReloader;
+import io.javalin.http.HttpCode;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+
+import static io.javalin.apibuilder.ApiBuilder.path;
+import static io.javalin.apibuilder.ApiBuilder.post;
+
+public class Plugins {
+    private static final long RELOAD_TIMEOUT = 30;
+    private final Plugin plugin;
+    private final PluginReloader reloader;
+
+    public Plugins(Plugin plugin) {
+        this.plugin = plugin;
+        reloader = new PluginReloader(plugin);
+    }
+
+    public void buildRoutes() {
+        path("plugins", () -> {
+            post("reload", ctx -> {
+                var name = ctx.body().trim();
+                if (!name.endsWith(".jar") || name.contains("/") || name.contains("\\")) {
+                    ctx.status(HttpCode.BAD_REQUEST);
+                    ctx.result("Invalid plugin file name");
+                    return;
+                }
+                var file = new File(plugin.getDataFolder().getParentFile(), name);
+                if (!file.isFile()) {
+                    ctx.status(HttpCode.NOT_FOUND);
+                    return;
+                }
+
+                var reload = plugin.getServer().getScheduler().callSyncMethod(plugin, () -> reloader.reload(file));
+                try {
+                    var loaded = reload.get(RELOAD_TIMEOUT, TimeUnit.SECONDS);
+                    ctx.result(loaded.getName());
+                    ctx.status(HttpCode.OK);
+                } catch (ExecutionException e) {
+                    plugin.getLogger().log(Level.WARNING, "Could not reload " + name, e.getCause());
+                    ctx.result(String.valueOf(e.getCause().getMessage()));
+                    ctx.status(HttpCode.INTERNAL_SERVER_ERROR);
+                } catch (TimeoutException e) {
+                    reload.cancel(false);
+                    ctx.status(HttpCode.INTERNAL_SERVER_ERROR);
+                    ctx.result("Reload timed out");
+                }
+            });
+        });
+    }
+}
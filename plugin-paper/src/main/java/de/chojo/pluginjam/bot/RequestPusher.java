@@ -0,0 +1,85 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.pluginjam.bot;
+
+import com.google.gson.Gson;
+import de.chojo.pluginjam.payload.RequestsPayload;
+import de.chojo.pluginjam.service.ServerRequests;
+import org.eclipse.jetty.http.HttpStatus;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Pushes changes of the {@link ServerRequests} to the bot, so the bot does not have to wait for the next poll.
+ */
+public class RequestPusher {
+    private static final Logger log = getLogger(RequestPusher.class);
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Gson gson = new Gson();
+    private final String botUrl;
+    private final String token;
+
+    private RequestPusher(String botUrl, String token) {
+        this.botUrl = botUrl;
+        this.token = token;
+    }
+
+    /**
+     * Creates a pusher if the bot url and the team token file were provided on startup.
+     *
+     * @param requests requests to push on change
+     * @return the pusher or empty if push is not configured
+     */
+    public static Optional<RequestPusher> create(ServerRequests requests) {
+        var botUrl = System.getProperty("pluginjam.bot.url");
+        var token = readToken(System.getProperty("pluginjam.team.tokenfile"));
+        if (botUrl == null || botUrl.isBlank() || token == null || token.isBlank()) {
+            log.info("Bot url or team token not set. Requests are only available via polling.");
+            return Optional.empty();
+        }
+        var pusher = new RequestPusher(botUrl.replaceAll("/$", ""), token);
+        requests.onChange(pusher::push);
+        return Optional.of(pusher);
+    }
+
+    private static String readToken(String file) {
+        if (file == null || file.isBlank()) return null;
+        try {
+            return Files.readString(Path.of(file)).strip();
+        } catch (IOException e) {
+            log.error("Could not read team token from {}", file, e);
+            return null;
+        }
+    }
+
+    private void push(RequestsPayload payload) {
+        var request = HttpRequest.newBuilder(URI.create("%s/api/v1/server/requests/%s".formatted(botUrl, token)))
+                                 .timeout(Duration.ofSeconds(10))
+                                 .header("Content-Type", "application/json")
+                                 .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(payload)))
+                                 .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+              .whenComplete((res, err) -> {
+                  if (err != null) {
+                      log.error("Could not push requests to bot. The bot will pick them up on the next poll.", err);
+                  } else if (res.statusCode() != HttpStatus.ACCEPTED_202) {
+                      log.warn("Bot rejected pushed requests with status {}", res.statusCode());
+                  }
+              });
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2022 DevCord Team and Contributor
+ */
+
+package de.chojo.pluginjam.service;
+
+import org.bukkit.command.PluginCommand;
+import org.bukkit.plugin.InvalidDescriptionException;
+import org.bukkit.plugin.InvalidPluginException;
+import org.bukkit.plugin.Plugin;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Replaces a loaded plugin with the current version of its jar without restarting the server.
+ * <p>
+ * Unloading a plugin is not supported by the server api. The plugin is removed from the plugin manager via reflection.
+ * If anything fails an exception is thrown and the server should be restarted instead.
+ */
+public class PluginReloader {
+    private final Plugin plugin;
+
+    public PluginReloader(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Unloads the plugin loaded from this file and loads the file again. Has to be called on the main thread.
+     *
+     * @param file plugin jar
+     * @return the newly loaded plugin
+     * @throws ReloadException if the plugin could not be reloaded
+     */
+    public Plugin reload(File file) throws ReloadException {
+        var current = byFile(file.toPath());
+        if (current.isPresent()) {
+            if (current.get() == plugin) {
+                throw new ReloadException("Refusing to reload " + plugin.getName());
+            }
+            unload(current.get());
+        }
+
+        var pluginManager = plugin.getServer().getPluginManager();
+        Plugin loaded;
+        try {
+            loaded = pluginManager.loadPlugin(file);
+        } catch (InvalidPluginException | InvalidDescriptionException e) {
+            throw new ReloadException("Could not load " + file.getName(), e);
+        }
+        if (loaded == null) throw new ReloadException("Could not load " + file.getName());
+        loaded.onLoad();
+        pluginManager.enablePlugin(loaded);
+        if (!loaded.isEnabled()) throw new ReloadException(loaded.getName() + " failed to enable");
+        syncCommands();
+        plugin.getLogger().info("Reloaded " + loaded.getName());
+        return loaded;
+    }
+
+    private Optional<Plugin> byFile(Path file) {
+        var target = file.toAbsolutePath().normalize();
+        for (var loaded : plugin.getServer().getPluginManager().getPlugins()) {
+            var source = loaded.getClass().getProtectionDomain().getCodeSource();
+            if (source == null) continue;
+            try {
+                if (Path.of(source.getLocation().toURI()).toAbsolutePath().normalize().equals(target)) {
+                    return Optional.of(loaded);
+                }
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // not a file based plugin
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void unload(Plugin target) throws ReloadException {
+        plugin.getServer().getPluginManager().disablePlugin(target);
+
+        plugin.getServer().getCommandMap().getKnownCommands().values()
+                .removeIf(command -> command instanceof PluginCommand pluginCommand && pluginCommand.getPlugin() == target);
+
+        try {
+            Object manager = plugin.getServer().getPluginManager();
+            // Paper delegates to its own plugin manager
+            var paperManager = field(manager, "paperPluginManager");
+            if (paperManager.isPresent()) {
+                manager = field(paperManager.get(), "instanceManager")
+                        .orElseThrow(() -> new NoSuchFieldException("instanceManager"));
+            }
+            var plugins = (List<?>) field(manager, "plugins").orElseThrow(() -> new NoSuchFieldException("plugins"));
+            var lookupNames = (Map<?, ?>) field(manager, "lookupNames").orElseThrow(() -> new NoSuchFieldException("lookupNames"));
+            plugins.remove(target);
+            lookupNames.values().removeIf(value -> value == target);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new ReloadException("Could not unload " + target.getName(), e);
+        }
+
+        if (target.getClass().getClassLoader() instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                plugin.getLogger().warning("Could not close class loader of " + target.getName());
+            }
+        }
+    }
+
+    private void syncCommands() {
+        // Send the new commands to the clients. Not part of the api.
+        try {
+            var method = plugin.getServer().getClass().getDeclaredMethod("syncCommands");
+            method.setAccessible(true);
+            method.invoke(plugin.getServer());
+        } catch (ReflectiveOperationException e) {
+            plugin.getLogger().warning("Could not sync commands");
+        }
+    }
+
+    private static Optional<Object> field(Object instance, String name) throws IllegalAccessException {
+        for (Class<?> clazz = instance.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            Field field;
+            try {
+                field = clazz.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                continue;
+            }
+            field.setAccessible(true);
+            return Optional.ofNullable(field.get(instance));
+        }
+        return Optional.empty();
+    }
+
+    public static class ReloadException extends Exception {
+        public ReloadException(String message) {
+            super(message);
+        }
+
+        public ReloadException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
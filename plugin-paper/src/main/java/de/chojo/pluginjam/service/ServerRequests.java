@@ -8,19 +8,44 @@ package de.chojo.pluginjam.service;
 
 import de.chojo.pluginjam.payload.RequestsPayload;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
 public class ServerRequests {
-    private boolean restartByUserOrServer = false;
-    private boolean restartByEmpty = false;
+    private final List<Consumer<RequestsPayload>> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean restartByUserOrServer = false;
+    private volatile boolean restartByEmpty = false;
 
     public RequestsPayload get() {
         return new RequestsPayload(restartByUserOrServer || restartByEmpty);
     }
 
     public void restartByUserOrServer(boolean state) {
+        var changed = restartByUserOrServer != state;
         restartByUserOrServer = state;
+        if (changed) notifyListeners();
     }
 
     public void restartByEmpty(boolean state) {
+        var changed = restartByEmpty != state;
         restartByEmpty = state;
+        if (changed) notifyListeners();
+    }
+
+    /**
+     * Registers a listener which is called with the current requests whenever a request flag changes.
+     *
+     * @param listener listener to register
+     */
+    public void onChange(Consumer<RequestsPayload> listener) {
+        listeners.add(listener);
+    }
+
+    private void notifyListeners() {
+        var payload = get();
+        for (var listener : listeners) {
+            listener.accept(payload);
+        }
     }
 }